@@ -0,0 +1,24 @@
+package com.ewaste.ewaste_backend.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class HttpCacheConfig {
+
+    /**
+     * Adds an ETag (hash of the response body) to read-heavy JSON endpoints and answers
+     * a matching If-None-Match with 304, so repeated polls from the worker app skip the
+     * response body. The endpoint still runs; only the transfer is saved.
+     * @return Filter registration limited to the polled endpoints.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/worker/pickups/*", "/api/profile/*");
+        registration.setName("shallowEtagHeaderFilter");
+        return registration;
+    }
+}
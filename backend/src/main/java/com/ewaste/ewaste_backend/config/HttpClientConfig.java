@@ -0,0 +1,79 @@
+package com.ewaste.ewaste_backend.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${http.client.max-connections-per-host:20}")
+    private int maxConnectionsPerHost;
+
+    @Value("${http.client.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${http.client.read-timeout-ms:15000}")
+    private long readTimeoutMs;
+
+    /** How long a caller may wait for a free pooled connection before failing. */
+    @Value("${http.client.pool-timeout-ms:2000}")
+    private long poolTimeoutMs;
+
+    @Value("${http.client.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    /**
+     * Pooled keep-alive client shared by every outbound Google API call, so TLS
+     * sessions are reused and no call can block a request thread indefinitely.
+     * Responses are transparently gunzipped (Accept-Encoding is sent by default).
+     */
+    @Bean
+    public CloseableHttpClient outboundHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerHost)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build())
+            .build();
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build())
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+            .build();
+    }
+
+    @Bean
+    public OutboundHttpMetrics outboundHttpMetrics() {
+        return new OutboundHttpMetrics();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient outboundHttpClient, OutboundHttpMetrics outboundHttpMetrics) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(outboundHttpClient));
+        restTemplate.getInterceptors().add(outboundHttpMetrics);
+        return restTemplate;
+    }
+}
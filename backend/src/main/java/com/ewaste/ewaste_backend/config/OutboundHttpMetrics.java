@@ -0,0 +1,76 @@
+package com.ewaste.ewaste_backend.config;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-endpoint latency and error counters for the shared outbound RestTemplate.
+ *
+ * Endpoints are keyed by method, host and path only; the query string is dropped so
+ * API keys and per-call parameters neither leak into metrics nor explode the key space.
+ */
+public class OutboundHttpMetrics implements ClientHttpRequestInterceptor {
+
+    private final ConcurrentHashMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        EndpointStats stats = endpoints.computeIfAbsent(endpointKey(request), k -> new EndpointStats());
+        long startedAt = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            stats.record(System.nanoTime() - startedAt, response.getStatusCode().isError());
+            return response;
+        } catch (IOException | RuntimeException e) {
+            stats.record(System.nanoTime() - startedAt, true);
+            throw e;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> result.put(endpoint, stats.snapshot()));
+        return result;
+    }
+
+    private static String endpointKey(HttpRequest request) {
+        URI uri = request.getURI();
+        return request.getMethod() + " " + uri.getHost() + uri.getRawPath();
+    }
+
+    private static final class EndpointStats {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, boolean error) {
+            calls.incrementAndGet();
+            if (error) {
+                errors.incrementAndGet();
+            }
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> snapshot() {
+            long count = calls.get();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("calls", count);
+            snapshot.put("errors", errors.get());
+            snapshot.put("averageLatencyMs", count == 0 ? 0.0 : totalNanos.get() / 1_000_000.0 / count);
+            snapshot.put("maxLatencyMs", maxNanos.get() / 1_000_000.0);
+            return snapshot;
+        }
+    }
+}
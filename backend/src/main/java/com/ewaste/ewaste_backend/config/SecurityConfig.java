@@ -47,7 +47,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                        .requestMatchers("/api/login", "/api/register", "/api/worker/login", "/api/worker/register", "/api/maps/**", "/api/waste/**").permitAll()
+                        .requestMatchers("/api/login", "/api/register", "/api/worker/login", "/api/worker/register", "/api/maps/**", "/api/waste/**", "/api/images/**").permitAll()
                         .requestMatchers("/api/profile/**", "/api/pickups/user/**", "/api/pickups/schedule", "/api/razorpay/**", "/api/pickups/counts").hasAnyRole("INDIVIDUAL", "COMMERCIAL", "CHARITY")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers(
@@ -2,6 +2,8 @@ package com.ewaste.ewaste_backend.controller;
 
 import com.ewaste.ewaste_backend.model.Employee;
 import com.ewaste.ewaste_backend.service.AdminService;
+import com.ewaste.ewaste_backend.service.KeywordClassifierService;
+import com.ewaste.ewaste_backend.service.MaterialCatalogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
@@ -24,6 +26,12 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private KeywordClassifierService keywordClassifierService;
+
+    @Autowired
+    private MaterialCatalogService materialCatalogService;
+
     // Employee CRUD
     @GetMapping("/employees")
     public ResponseEntity<List<Employee>> getAllEmployees() {
@@ -124,4 +132,34 @@ public class AdminController {
     public ResponseEntity<byte[]> downloadByStatusCsv(@RequestParam String status) {
         return csvResponse("by-status.csv", adminService.reportByStatus(status));
     }
+
+    // Analysis keyword tables
+    @GetMapping("/analysis/keywords")
+    public ResponseEntity<Map<String, Object>> getKeywordTables() {
+        return ResponseEntity.ok(keywordClassifierService.getStatus());
+    }
+
+    @PostMapping("/analysis/keywords/reload")
+    public ResponseEntity<Map<String, Object>> reloadKeywordTables() {
+        try {
+            return ResponseEntity.ok(keywordClassifierService.reload());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Keyword tables not reloaded: " + e.getMessage()));
+        }
+    }
+
+    // Material catalog (prices per gram, element weights)
+    @GetMapping("/analysis/materials")
+    public ResponseEntity<Map<String, Object>> getMaterialCatalog() {
+        return ResponseEntity.ok(materialCatalogService.getStatus());
+    }
+
+    @PostMapping("/analysis/materials/reload")
+    public ResponseEntity<Map<String, Object>> reloadMaterialCatalog() {
+        try {
+            return ResponseEntity.ok(materialCatalogService.reload());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Material catalog not reloaded: " + e.getMessage()));
+        }
+    }
 }
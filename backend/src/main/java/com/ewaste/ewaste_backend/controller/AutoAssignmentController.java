@@ -1,8 +1,10 @@
 package com.ewaste.ewaste_backend.controller;
 
+import com.ewaste.ewaste_backend.dto.NearbyWorkerDTO;
 import com.ewaste.ewaste_backend.model.PickupRequest;
 import com.ewaste.ewaste_backend.model.Worker;
 import com.ewaste.ewaste_backend.service.AutoAssignmentService;
+import com.ewaste.ewaste_backend.service.BatchAssignmentService;
 import com.ewaste.ewaste_backend.service.PickupRequestService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -23,20 +25,21 @@ public class AutoAssignmentController {
     @Autowired
     private PickupRequestService pickupRequestService;
 
+    @Autowired
+    private BatchAssignmentService batchAssignmentService;
+
     /**
-     * Manually trigger auto-assignment for all unassigned pickups
+     * Manually trigger auto-assignment for all unassigned pickups.
+     * Solved as one batch so the total travel distance is minimized across all pickups.
      */
     @PostMapping("/assign-all")
     public ResponseEntity<Map<String, Object>> assignAllUnassignedPickups() {
         try {
-            List<PickupRequest> unassignedPickups = pickupRequestService.getUnassignedPendingPickups();
-            int assignedCount = autoAssignmentService.autoAssignMultiplePickups(unassignedPickups);
+            Map<String, Object> summary = batchAssignmentService.assignAllUnassigned(5); // Max 5 assignments per worker
             
-            Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>(summary);
             response.put("success", true);
-            response.put("totalUnassigned", unassignedPickups.size());
-            response.put("assignedCount", assignedCount);
-            response.put("message", "Successfully assigned " + assignedCount + " out of " + unassignedPickups.size() + " unassigned pickups");
+            response.put("message", "Successfully assigned " + summary.get("assignedCount") + " out of " + summary.get("totalUnassigned") + " unassigned pickups");
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -51,11 +54,12 @@ public class AutoAssignmentController {
      * Find nearby workers for a specific pickup location
      */
     @GetMapping("/nearby-workers")
-    public ResponseEntity<List<Worker>> findNearbyWorkers(
+    public ResponseEntity<List<NearbyWorkerDTO>> findNearbyWorkers(
             @RequestParam String pincode,
-            @RequestParam(defaultValue = "10") double radiusKm) {
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Worker> nearbyWorkers = autoAssignmentService.findNearbyWorkers(pincode, radiusKm);
+            List<NearbyWorkerDTO> nearbyWorkers = autoAssignmentService.findNearbyWorkers(pincode, radiusKm, limit);
             return ResponseEntity.ok(nearbyWorkers);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
@@ -90,11 +94,7 @@ public class AutoAssignmentController {
     public ResponseEntity<Map<String, Object>> assignSpecificPickup(@PathVariable Long pickupId) {
         try {
             // Get the pickup request
-            List<PickupRequest> allPickups = pickupRequestService.getPickupsByUserId(1L); // This is a simplified approach
-            PickupRequest pickupRequest = allPickups.stream()
-                .filter(p -> p.getId().equals(pickupId))
-                .findFirst()
-                .orElse(null);
+            PickupRequest pickupRequest = pickupRequestService.getPickupRequestById(pickupId);
             
             if (pickupRequest == null) {
                 Map<String, Object> response = new HashMap<>();
@@ -132,9 +132,10 @@ public class AutoAssignmentController {
         Map<String, Object> config = new HashMap<>();
         config.put("maxAssignmentsPerWorker", 5);
         config.put("autoAssignmentEnabled", true);
-        config.put("distanceCalculationMethod", "Haversine formula with pincode mapping");
+        config.put("distanceCalculationMethod", "Haversine formula over an in-memory worker grid index");
         config.put("supportedFeatures", List.of(
             "Distance-based assignment",
+            "Batch min-cost assignment",
             "Load balancing",
             "Worker availability checking",
             "Manual assignment override"
@@ -0,0 +1,73 @@
+package com.ewaste.ewaste_backend.controller;
+
+import com.ewaste.ewaste_backend.service.ImageDerivativeService;
+import com.ewaste.ewaste_backend.service.ImageStoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams images from the content-addressed image store. URLs contain the SHA-256 of
+ * the content, so they are unguessable and the endpoint is public.
+ *
+ * ?size=thumb (240 px) or ?size=medium (1024 px) returns a JPEG variant for list and
+ * detail views; without it the original upload is returned. Responses carry a strong
+ * ETag and long-lived Cache-Control, and support Range requests.
+ */
+@RestController
+@RequestMapping("/api/images")
+@CrossOrigin
+public class ImageController {
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> getImage(@PathVariable String hash,
+                                             @RequestParam(value = "size", required = false) String size,
+                                             WebRequest webRequest) {
+        ImageDerivativeService.Variant variant;
+        try {
+            variant = ImageDerivativeService.Variant.fromParam(size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Path path = imageDerivativeService.resolve(hash, variant);
+        if (path == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // The file name is the content hash (plus the variant suffix), so it is a strong ETag
+        String etag = "\"" + path.getFileName() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        // Stored files never change and can be cached indefinitely; an original served in
+        // place of a variant that is not rendered yet must be revalidated instead
+        boolean fallback = variant != ImageDerivativeService.Variant.ORIGINAL && path.getFileName().toString().equals(hash);
+        CacheControl cacheControl = fallback
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+        // Range requests are answered with 206 partial content by Spring's resource handling
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(imageStoreService.detectMimeType(path)))
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(new FileSystemResource(path));
+    }
+}
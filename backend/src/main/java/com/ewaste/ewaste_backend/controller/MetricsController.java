@@ -0,0 +1,129 @@
+package com.ewaste.ewaste_backend.controller;
+
+import com.ewaste.ewaste_backend.config.OutboundHttpMetrics;
+import com.ewaste.ewaste_backend.service.AnalysisCacheService;
+import com.ewaste.ewaste_backend.service.AnalysisJobService;
+import com.ewaste.ewaste_backend.service.AssignmentQueueService;
+import com.ewaste.ewaste_backend.service.GeocodeCacheService;
+import com.ewaste.ewaste_backend.service.GoogleMapsApiService;
+import com.ewaste.ewaste_backend.service.ImageBlobService;
+import com.ewaste.ewaste_backend.service.ImageDerivativeService;
+import com.ewaste.ewaste_backend.service.ImageIntakeService;
+import com.ewaste.ewaste_backend.service.LocalClassifierService;
+import com.ewaste.ewaste_backend.service.VisionBatchService;
+import com.ewaste.ewaste_backend.service.WasteAnalysisService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only operational counters for the in-process caches and pipelines.
+ * Lives under /api/admin so it is restricted to the ADMIN role by SecurityConfig.
+ */
+@RestController
+@RequestMapping("/api/admin/metrics")
+@CrossOrigin
+public class MetricsController {
+
+    @Autowired
+    private GeocodeCacheService geocodeCacheService;
+
+    @Autowired
+    private AssignmentQueueService assignmentQueueService;
+
+    @Autowired
+    private OutboundHttpMetrics outboundHttpMetrics;
+
+    @Autowired
+    private GoogleMapsApiService googleMapsApiService;
+
+    @Autowired
+    private WasteAnalysisService wasteAnalysisService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ImageBlobService imageBlobService;
+
+    @Autowired
+    private AnalysisCacheService analysisCacheService;
+
+    @Autowired
+    private VisionBatchService visionBatchService;
+
+    @Autowired
+    private AnalysisJobService analysisJobService;
+
+    @Autowired
+    private LocalClassifierService localClassifierService;
+
+    @Autowired
+    private ImageIntakeService imageIntakeService;
+
+    @GetMapping("/geocode-cache")
+    public ResponseEntity<Map<String, Object>> getGeocodeCacheStats() {
+        return ResponseEntity.ok(geocodeCacheService.getStats());
+    }
+
+    @GetMapping("/assignment-queue")
+    public ResponseEntity<Map<String, Object>> getAssignmentQueueStats() {
+        return ResponseEntity.ok(assignmentQueueService.getStats());
+    }
+
+    @GetMapping("/outbound-http")
+    public ResponseEntity<Map<String, Object>> getOutboundHttpStats() {
+        return ResponseEntity.ok(outboundHttpMetrics.getStats());
+    }
+
+    @GetMapping("/maps-coalescing")
+    public ResponseEntity<Map<String, Object>> getMapsCoalescingStats() {
+        return ResponseEntity.ok(googleMapsApiService.getCoalescingStats());
+    }
+
+    @GetMapping("/dependencies")
+    public ResponseEntity<Map<String, Object>> getDependencyStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("googleMaps", googleMapsApiService.getGuardStats());
+        stats.put("googleVision", wasteAnalysisService.getVisionGuardStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/image-derivatives")
+    public ResponseEntity<Map<String, Object>> getImageDerivativeStats() {
+        return ResponseEntity.ok(imageDerivativeService.getStats());
+    }
+
+    @GetMapping("/image-blobs")
+    public ResponseEntity<Map<String, Object>> getImageBlobStats() {
+        return ResponseEntity.ok(imageBlobService.getStats());
+    }
+
+    @GetMapping("/analysis-cache")
+    public ResponseEntity<Map<String, Object>> getAnalysisCacheStats() {
+        return ResponseEntity.ok(analysisCacheService.getStats());
+    }
+
+    @GetMapping("/vision-batching")
+    public ResponseEntity<Map<String, Object>> getVisionBatchingStats() {
+        return ResponseEntity.ok(visionBatchService.getStats());
+    }
+
+    @GetMapping("/analysis-jobs")
+    public ResponseEntity<Map<String, Object>> getAnalysisJobStats() {
+        return ResponseEntity.ok(analysisJobService.getStats());
+    }
+
+    @GetMapping("/local-classifier")
+    public ResponseEntity<Map<String, Object>> getLocalClassifierStats() {
+        return ResponseEntity.ok(localClassifierService.getStats());
+    }
+
+    @GetMapping("/image-intake")
+    public ResponseEntity<Map<String, Object>> getImageIntakeStats() {
+        return ResponseEntity.ok(imageIntakeService.getStats());
+    }
+}
@@ -1,7 +1,9 @@
 package com.ewaste.ewaste_backend.controller;
 
+import com.ewaste.ewaste_backend.dto.PickupSummaryDTO;
 import com.ewaste.ewaste_backend.dto.PickupUpdateDTO; // Assuming this DTO is still used for other updates
 import com.ewaste.ewaste_backend.model.PickupRequest;
+import com.ewaste.ewaste_backend.service.ImageStoreService;
 import com.ewaste.ewaste_backend.service.PickupRequestService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,14 +27,17 @@ public class PickupController {
     @Autowired
     private PickupRequestService pickupRequestService;
 
+    @Autowired
+    private ImageStoreService imageStoreService;
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<PickupRequest>> getPickupsByUser(@PathVariable Long userId) {
-        List<PickupRequest> pickups = pickupRequestService.getPickupsByUserId(userId);
+    public ResponseEntity<List<PickupSummaryDTO>> getPickupsByUser(@PathVariable Long userId) {
+        List<PickupSummaryDTO> pickups = pickupRequestService.getPickupsByUserId(userId);
         return ResponseEntity.ok(pickups);
     }
 
     // FIXED: schedulePickup method. It now prepares a PickupRequest object
-    // and passes it to the service, where imageData will be byte[].
+    // and passes it to the service; the image goes to the image store.
     @PostMapping("/schedule")
     public ResponseEntity<Map<String, String>> schedulePickup(
             @RequestParam("userId") Long userId,
@@ -76,18 +81,28 @@ public class PickupController {
             pickupRequest.setBrand(brand);
             pickupRequest.setItemDetails(itemDetails);
 
-            // This line will now compile because PickupRequest.imageData is byte[]
+            // Image bytes go to the image store; the row keeps only the reference
             if (image != null && !image.isEmpty()) {
-                pickupRequest.setImageData(image.getBytes());
+                ImageStoreService.StoredImage storedImage = imageStoreService.store(image);
+                pickupRequest.setImageHash(storedImage.hash());
+                pickupRequest.setImageSize(storedImage.size());
+                pickupRequest.setImageMimeType(storedImage.mimeType());
             }
 
             // Call the service method, passing the PickupRequest object
-            pickupRequestService.savePickupRequest(pickupRequest);
+            PickupRequest savedRequest = pickupRequestService.savePickupRequest(pickupRequest);
 
+            // Worker assignment happens in the background; the pickup starts out PENDING
             response.put("status", "success");
             response.put("message", "Pickup request submitted successfully!");
+            response.put("pickupId", String.valueOf(savedRequest.getId()));
+            response.put("pickupStatus", savedRequest.getStatus());
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) { // Upload over the size limit
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (IOException e) { // Catch specific IOException for file operations
             e.printStackTrace();
             response.put("status", "error");
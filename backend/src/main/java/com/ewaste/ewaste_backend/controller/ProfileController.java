@@ -2,6 +2,7 @@ package com.ewaste.ewaste_backend.controller;
 
 import com.ewaste.ewaste_backend.model.User;
 import com.ewaste.ewaste_backend.repository.UserRepository;
+import com.ewaste.ewaste_backend.service.PickupHistoryService;
 import com.ewaste.ewaste_backend.util.TableCreator;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +10,6 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
-import java.util.Base64; // Re-added import Base64
 
 @RestController
 @RequestMapping("/api")
@@ -25,6 +25,11 @@ public class ProfileController {
     @Autowired
     private TableCreator tableCreator;
 
+    @Autowired
+    private PickupHistoryService pickupHistoryService;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     @GetMapping("/profile/{id}")
     public User getUserProfile(@PathVariable Long id) {
         return userRepository.findById(id).orElse(null);
@@ -40,35 +45,41 @@ public class ProfileController {
         return "User not found!";
     }
 
+    /**
+     * Paged pickup history of a user, newest first. Images are returned as URLs into the
+     * image store rather than inline bytes, so the response size only depends on the page size.
+     */
     @GetMapping("/pickups/{id}")
-    public List<Map<String, Object>> getPickupHistory(@PathVariable Long id) {
+    public Map<String, Object> getPickupHistory(@PathVariable Long id,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size) {
+        int safePage = Math.max(page, 0);
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
         Optional<User> user = userRepository.findById(id);
         if (!user.isPresent()) {
             System.err.println("User not found for ID: " + id);
-            return Collections.emptyList();
+            return emptyPage(safePage, safeSize);
         }
 
         String tableName = tableCreator.getTableName(user.get().getId(), user.get().getFullname());
-        System.out.println("Fetching history from table: " + tableName);
 
         try {
-            List<Map<String, Object>> history = jdbcTemplate.queryForList("SELECT * FROM `" + tableName + "` ORDER BY date DESC, time DESC");
-            System.out.println("Fetched " + history.size() + " records from " + tableName);
-
-            // Re-added Base64 conversion because imageData in DB is byte[]
-            for (Map<String, Object> record : history) {
-                if (record.containsKey("image_data") && record.get("image_data") instanceof byte[]) {
-                    byte[] imageData = (byte[]) record.get("image_data");
-                    String base64Image = Base64.getEncoder().encodeToString(imageData);
-                    record.put("image_data_base64", base64Image); // New key for the Base64 string
-                    record.remove("image_data"); // Remove the raw byte[]
-                }
-            }
-            return history;
+            return pickupHistoryService.getHistoryPage(tableName, safePage, safeSize);
         } catch (Exception e) {
             System.err.println("Error fetching pickup history from table " + tableName + ": " + e.getMessage());
             e.printStackTrace();
-            return Collections.emptyList();
+            return emptyPage(safePage, safeSize);
         }
     }
+
+    private static Map<String, Object> emptyPage(int page, int size) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("content", Collections.emptyList());
+        result.put("page", page);
+        result.put("size", size);
+        result.put("totalElements", 0L);
+        result.put("totalPages", 0L);
+        return result;
+    }
 }
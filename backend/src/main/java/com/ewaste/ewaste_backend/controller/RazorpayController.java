@@ -4,6 +4,7 @@ import com.ewaste.ewaste_backend.model.PickupRequest;
 import com.ewaste.ewaste_backend.model.User;
 import com.ewaste.ewaste_backend.repository.PickupRequestRepository;
 import com.ewaste.ewaste_backend.repository.UserRepository;
+import com.ewaste.ewaste_backend.service.ImageStoreService;
 import com.ewaste.ewaste_backend.service.PickupRequestService;
 import com.ewaste.ewaste_backend.util.TableCreator;
 import com.razorpay.Order;
@@ -11,11 +12,14 @@ import com.razorpay.RazorpayClient;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -39,6 +43,9 @@ public class RazorpayController {
     @Autowired
     private TableCreator tableCreator;
 
+    @Autowired
+    private ImageStoreService imageStoreService;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -69,7 +76,7 @@ public class RazorpayController {
 
     @Transactional
     @PostMapping(value = "/success", consumes = {"multipart/form-data"})
-    public String paymentSuccess(
+    public ResponseEntity<Map<String, Object>> paymentSuccess(
             @RequestParam("userId") String userId,
             @RequestParam("date") String date,
             @RequestParam("time") String time,
@@ -99,10 +106,14 @@ public class RazorpayController {
             request.setStatus(status);
             request.setWasteType(wasteType);
 
-            byte[] imageData = null;
+            // The history table keeps the image URL, pickup_requests the store reference
+            String imageUrl = null;
             if (imageFile != null && !imageFile.isEmpty()) {
-                imageData = imageFile.getBytes();
-                request.setImageData(imageData);
+                ImageStoreService.StoredImage storedImage = imageStoreService.store(imageFile);
+                request.setImageHash(storedImage.hash());
+                request.setImageSize(storedImage.size());
+                request.setImageMimeType(storedImage.mimeType());
+                imageUrl = storedImage.url();
             }
 
             pickupRequestService.savePickupRequest(request);
@@ -133,15 +144,25 @@ public class RazorpayController {
                         time,
                         userIdLong,
                         wasteType,
-                        imageData
+                        imageUrl
                 );
             }
 
-            return "{\"status\": \"success\"}";
+            return ResponseEntity.ok(Map.of("status", "success"));
 
+        } catch (IllegalArgumentException e) {
+            // Oversized or invalid image
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
-            return "{\"status\": \"error\", \"message\": \"" + e.getMessage() + "\"}";
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
         }
     }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "error");
+        body.put("message", message != null ? message : status.getReasonPhrase());
+        return ResponseEntity.status(status).body(body);
+    }
 }
\ No newline at end of file
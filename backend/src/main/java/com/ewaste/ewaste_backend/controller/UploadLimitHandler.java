@@ -0,0 +1,44 @@
+package com.ewaste.ewaste_backend.controller;
+
+import org.apache.tomcat.util.http.fileupload.impl.FileSizeLimitExceededException;
+import org.apache.tomcat.util.http.fileupload.impl.SizeLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.util.Map;
+
+/**
+ * Answers uploads rejected by the multipart limits, which fail before any controller runs.
+ * Spring does not report which limit was hit (getMaxUploadSize() is -1 for servlet
+ * multipart), so the Tomcat cause tells a too-large image from a too-large request.
+ */
+@RestControllerAdvice
+public class UploadLimitHandler {
+
+    @Value("${image.upload.max-bytes:15728640}")
+    private long maxImageBytes;
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> uploadTooLarge(MaxUploadSizeExceededException e) {
+        String message = "Upload exceeds the size limit of " + megabytes(maxImageBytes) + " per image";
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof FileSizeLimitExceededException tooLarge) {
+                message = "Each image must be at most " + megabytes(tooLarge.getPermittedSize());
+                break;
+            }
+            if (cause instanceof SizeLimitExceededException tooLarge) {
+                message = "The upload must be at most " + megabytes(tooLarge.getPermittedSize()) + " in total";
+                break;
+            }
+        }
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", message));
+    }
+
+    private static String megabytes(long bytes) {
+        return (bytes + (1 << 20) - 1) / (1 << 20) + " MB";
+    }
+}
@@ -1,12 +1,22 @@
 package com.ewaste.ewaste_backend.controller;
 
-import com.ewaste.ewaste_backend.service.WasteAnalysisService;
+import com.ewaste.ewaste_backend.service.AnalysisJobService;
+import com.ewaste.ewaste_backend.service.ImageStoreService;
+import com.ewaste.ewaste_backend.service.UploadedImage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/waste")
@@ -14,15 +24,91 @@ import java.util.Map;
 public class WasteAnalysisController {
 
     @Autowired
-    private WasteAnalysisService wasteAnalysisService;
+    private AnalysisJobService analysisJobService;
 
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    /**
+     * How long a request with async=false waits for its job before answering 202 with the
+     * job id. Kept short so cache and local-classifier hits answer inline without holding
+     * a request thread for a whole Vision call.
+     */
+    @Value("${analysis.jobs.sync-wait-ms:300}")
+    private long syncWaitMs;
+
+    /**
+     * Analyzes an image on the analysis executor. By default the response is 202 with a job id
+     * to poll; with async=false the request waits up to sync-wait-ms for the result before
+     * falling back to 202. 429 when the queue is full.
+     */
     @PostMapping("/analyze")
-    public ResponseEntity<Map<String, Object>> analyzeWaste(@RequestParam("image") MultipartFile file) {
+    public ResponseEntity<Map<String, Object>> analyzeWaste(@RequestParam("image") MultipartFile file,
+                                                            @RequestParam(value = "async", defaultValue = "true") boolean async) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "Please upload an image"));
         }
-        
-        Map<String, Object> analysisResult = wasteAnalysisService.analyzeWasteImage(file);
-        return ResponseEntity.ok(analysisResult);
+
+        AnalysisJobService.AnalysisJob job;
+        UploadedImage upload = null;
+        try {
+            // Streamed to a temp file that is removed again once the analysis is done
+            upload = imageStoreService.receive(file);
+            job = analysisJobService.submit(upload);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Could not read the uploaded image"));
+        } catch (RejectedExecutionException e) {
+            upload.close();
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(analysisJobService.getRetryAfterSeconds()))
+                    .body(Map.of("error", "Image analysis is busy. Please try again shortly."));
+        }
+
+        if (!async) {
+            try {
+                job.getFuture().get(syncWaitMs, TimeUnit.MILLISECONDS);
+                return jobResponse(job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (TimeoutException e) {
+                // Still running; fall through and let the client poll
+            } catch (Exception e) {
+                return jobResponse(job);
+            }
+        }
+        return ResponseEntity.accepted().body(jobStatus(job));
+    }
+
+    /**
+     * Result of an analysis job: 200 with the analysis once done, 202 while queued or running.
+     */
+    @GetMapping("/analyze/{jobId}")
+    public ResponseEntity<Map<String, Object>> getAnalysisJob(@PathVariable String jobId) {
+        AnalysisJobService.AnalysisJob job = analysisJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Unknown or expired analysis job"));
+        }
+        return jobResponse(job);
+    }
+
+    private ResponseEntity<Map<String, Object>> jobResponse(AnalysisJobService.AnalysisJob job) {
+        switch (job.getStatus()) {
+            case DONE:
+                return ResponseEntity.ok(job.getResult());
+            case FAILED:
+                return ResponseEntity.internalServerError().body(Map.of("error", job.getError(), "jobId", job.getId()));
+            default:
+                return ResponseEntity.accepted().body(jobStatus(job));
+        }
+    }
+
+    private static Map<String, Object> jobStatus(AnalysisJobService.AnalysisJob job) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("jobId", job.getId());
+        body.put("status", job.getStatus().name());
+        body.put("statusUrl", "/api/waste/analyze/" + job.getId());
+        return body;
     }
 }
@@ -1,9 +1,12 @@
 package com.ewaste.ewaste_backend.controller;
 
+import com.ewaste.ewaste_backend.dto.PickupSummaryDTO;
 import com.ewaste.ewaste_backend.model.PickupRequest;
 import com.ewaste.ewaste_backend.model.PickupLog;
 import com.ewaste.ewaste_backend.model.Worker;
+import com.ewaste.ewaste_backend.service.ImageStoreService;
 import com.ewaste.ewaste_backend.service.PickupRequestService;
+import com.ewaste.ewaste_backend.service.UploadedImage;
 import com.ewaste.ewaste_backend.service.WorkerService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -70,6 +73,21 @@ class RescheduleDTO {
     public void setReason(String reason) { this.reason = reason; }
 }
 
+class WorkerLocationDTO {
+    private Double latitude;
+    private Double longitude;
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+}
+
+class WorkerAvailabilityDTO {
+    private Boolean availability;
+    public Boolean getAvailability() { return availability; }
+    public void setAvailability(Boolean availability) { this.availability = availability; }
+}
+
 
 @RestController
 @RequestMapping("/api/worker")
@@ -85,6 +103,15 @@ public class WorkerController {
     @Autowired
     private com.ewaste.ewaste_backend.service.WasteAnalysisService wasteAnalysisService;
 
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Autowired
+    private com.ewaste.ewaste_backend.service.LocalClassifierService localClassifierService;
+
+    @Autowired
+    private com.ewaste.ewaste_backend.service.ImageIntakeService imageIntakeService;
+
     private Optional<Worker> getAuthenticatedWorker() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -118,8 +145,41 @@ public class WorkerController {
         }
     }
 
+    @PutMapping("/location")
+    public ResponseEntity<Worker> updateLocation(@RequestBody WorkerLocationDTO dto) {
+        try {
+            Optional<Worker> workerOptional = getAuthenticatedWorker();
+            if (workerOptional.isEmpty()) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            Worker worker = workerService.updateWorkerLocation(workerOptional.get().getId(), dto.getLatitude(), dto.getLongitude());
+            worker.setPassword(null);
+            return ResponseEntity.ok(worker);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PutMapping("/availability")
+    public ResponseEntity<Worker> updateAvailability(@RequestBody WorkerAvailabilityDTO dto) {
+        try {
+            Optional<Worker> workerOptional = getAuthenticatedWorker();
+            if (workerOptional.isEmpty()) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            if (dto.getAvailability() == null) return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            Worker worker = workerService.updateWorkerAvailability(workerOptional.get().getId(), dto.getAvailability());
+            worker.setPassword(null);
+            return ResponseEntity.ok(worker);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/pickups")
-    public ResponseEntity<List<PickupRequest>> getAllWorkerPickups() {
+    public ResponseEntity<List<PickupSummaryDTO>> getAllWorkerPickups() {
         try {
             Optional<Worker> workerOptional = getAuthenticatedWorker();
             if (workerOptional.isEmpty()) {
@@ -127,7 +187,7 @@ public class WorkerController {
             }
 
             Worker worker = workerOptional.get();
-            List<PickupRequest> requests = pickupRequestService.getPickupRequestsForWorker(worker.getId());
+            List<PickupSummaryDTO> requests = pickupRequestService.getPickupRequestsForWorker(worker.getId());
             return ResponseEntity.ok(requests);
         } catch (Exception e) {
             e.printStackTrace();
@@ -136,7 +196,7 @@ public class WorkerController {
     }
 
     @GetMapping("/pickups/today/pending")
-    public ResponseEntity<List<PickupRequest>> getTodaysPendingWorkerPickups() {
+    public ResponseEntity<List<PickupSummaryDTO>> getTodaysPendingWorkerPickups() {
         try {
             Optional<Worker> workerOptional = getAuthenticatedWorker();
             if (workerOptional.isEmpty()) {
@@ -144,7 +204,7 @@ public class WorkerController {
             }
 
             Worker worker = workerOptional.get();
-            List<PickupRequest> requests = pickupRequestService.getTodaysPendingPickupsForWorker(worker.getId());
+            List<PickupSummaryDTO> requests = pickupRequestService.getTodaysPendingPickupsForWorker(worker.getId());
             return ResponseEntity.ok(requests);
         } catch (Exception e) {
             e.printStackTrace();
@@ -153,14 +213,14 @@ public class WorkerController {
     }
 
     @GetMapping("/pickups/unassigned")
-    public ResponseEntity<List<PickupRequest>> getUnassignedPendingPickups() {
+    public ResponseEntity<List<PickupSummaryDTO>> getUnassignedPendingPickups() {
         try {
             Optional<Worker> workerOptional = getAuthenticatedWorker();
             if (workerOptional.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
             }
 
-            List<PickupRequest> unassignedRequests = pickupRequestService.getUnassignedPendingPickups();
+            List<PickupSummaryDTO> unassignedRequests = pickupRequestService.getUnassignedPendingPickups();
             return ResponseEntity.ok(unassignedRequests);
         } catch (Exception e) {
             e.printStackTrace();
@@ -168,6 +228,33 @@ public class WorkerController {
         }
     }
 
+    /**
+     * Full detail of one pickup (entity with items and image URLs). Available to the
+     * assigned worker, and to any worker while the pickup is still unassigned.
+     */
+    @GetMapping("/pickups/{requestId}")
+    public ResponseEntity<PickupRequest> getPickupDetail(@PathVariable Long requestId) {
+        try {
+            Optional<Worker> workerOptional = getAuthenticatedWorker();
+            if (workerOptional.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+
+            PickupRequest pickupRequest = pickupRequestService.getPickupRequestById(requestId);
+            if (pickupRequest == null) {
+                return ResponseEntity.notFound().build();
+            }
+            Long assignedWorkerId = pickupRequest.getAssignedWorkerId();
+            if (assignedWorkerId != null && !assignedWorkerId.equals(workerOptional.get().getId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.ok(pickupRequest);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping("/pickups/{requestId}/assign")
     public ResponseEntity<PickupRequest> assignPickupToSelf(@PathVariable Long requestId) {
         try {
@@ -256,7 +343,7 @@ public class WorkerController {
     }
 
     @GetMapping("/pickups/missed")
-    public ResponseEntity<List<PickupRequest>> getMissedWorkerPickups() {
+    public ResponseEntity<List<PickupSummaryDTO>> getMissedWorkerPickups() {
         try {
             Optional<Worker> workerOptional = getAuthenticatedWorker();
             if (workerOptional.isEmpty()) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -301,56 +388,78 @@ public class WorkerController {
                  return ResponseEntity.badRequest().body("No images uploaded.");
             }
 
-            // Primary image for AI analysis is the first one
-            org.springframework.web.multipart.MultipartFile primaryImage = images[0];
-            
-            // AI Analysis
-            java.util.Map<String, Object> analysis = wasteAnalysisService.analyzeWasteImage(primaryImage);
-            String aiBrand = (String) analysis.get("brand");
-            String aiItem = (String) analysis.getOrDefault("detectedItem", "Unknown");
-            double confidence = 0.0;
-             Object conf = analysis.get("confidence");
-             if (conf instanceof Number) {
-                confidence = ((Number) conf).doubleValue();
+            // Each upload is streamed to disk once, all images in parallel; analysis and
+            // storage share the handles
+            List<UploadedImage> uploads = imageIntakeService.receiveAll(images);
+            try {
+                return addPickupItem(requestId, uploads, brand, details);
+            } finally {
+                uploads.forEach(UploadedImage::close);
             }
 
-            // Manual Override Check: If brand is provided manually and differs from AI, require > 1 image
-            if (brand != null && !brand.trim().isEmpty() && !brand.equalsIgnoreCase(aiBrand)) {
-                if (images.length < 2) {
-                     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body("Manual Brand verification requires at least 2 images for confidence building.");
-                }
-            }
-            
-            com.ewaste.ewaste_backend.model.PickupItem item = new com.ewaste.ewaste_backend.model.PickupItem();
-            item.setImageData(primaryImage.getBytes()); // Main thumbnail
-            
-            // Add all images to ItemImage relationship
-            for (org.springframework.web.multipart.MultipartFile img : images) {
-                com.ewaste.ewaste_backend.model.ItemImage itemImage = new com.ewaste.ewaste_backend.model.ItemImage();
-                itemImage.setImageData(img.getBytes());
-                item.addImage(itemImage);
-            }
-
-            item.setWasteType(aiItem);
-            item.setBrand(brand != null ? brand : aiBrand);
-            item.setItemDetails(details != null ? details : "Added by Worker");
-            
-            Object val = analysis.get("totalEstimatedValue");
-             if (val instanceof Number) {
-                item.setEstimatedValue(((Number) val).doubleValue());
-            } else {
-                 item.setEstimatedValue(0.0);
-            }
-            
-            item.setAiConfidence(confidence);
-            item.setStatus("VERIFIED"); 
-
-            return ResponseEntity.ok(pickupRequestService.addPickupItem(requestId, item));
-
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    private ResponseEntity<?> addPickupItem(Long requestId, List<UploadedImage> images, String brand, String details) throws java.io.IOException {
+        // AI Analysis over all photos of the item, sent to Vision as one batch
+        java.util.Map<String, Object> analysis = wasteAnalysisService.analyzeWasteImages(images);
+        String aiBrand = (String) analysis.get("brand");
+        String aiItem = (String) analysis.getOrDefault("detectedItem", "Unknown");
+        double confidence = 0.0;
+         Object conf = analysis.get("confidence");
+         if (conf instanceof Number) {
+            confidence = ((Number) conf).doubleValue();
+        }
+
+        // Manual Override Check: If brand is provided manually and differs from AI, require > 1 image
+        if (brand != null && !brand.trim().isEmpty() && !brand.equalsIgnoreCase(aiBrand)) {
+            if (images.size() < 2) {
+                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Manual Brand verification requires at least 2 images for confidence building.");
+            }
+        }
+        
+        com.ewaste.ewaste_backend.model.PickupItem item = new com.ewaste.ewaste_backend.model.PickupItem();
+        
+        // Add all images to ItemImage relationship; the first one is the main thumbnail.
+        // Images are stored in parallel and merged here, before the single save.
+        for (ImageStoreService.StoredImage storedImage : imageIntakeService.storeAll(images)) {
+            if (item.getImageHash() == null) {
+                item.setImageHash(storedImage.hash());
+                item.setImageSize(storedImage.size());
+                item.setImageMimeType(storedImage.mimeType());
+                item.setImageUrl(storedImage.url());
+            }
+            com.ewaste.ewaste_backend.model.ItemImage itemImage = new com.ewaste.ewaste_backend.model.ItemImage();
+            itemImage.setImageHash(storedImage.hash());
+            itemImage.setImageSize(storedImage.size());
+            itemImage.setImageMimeType(storedImage.mimeType());
+            item.addImage(itemImage);
+        }
+
+        item.setWasteType(aiItem);
+        item.setBrand(brand != null ? brand : aiBrand);
+        item.setItemDetails(details != null ? details : "Added by Worker");
+        
+        Object val = analysis.get("totalEstimatedValue");
+         if (val instanceof Number) {
+            item.setEstimatedValue(((Number) val).doubleValue());
+        } else {
+             item.setEstimatedValue(0.0);
+        }
+        
+        item.setAiConfidence(confidence);
+        item.setAiLearnable(localClassifierService.isLearnable(analysis));
+        item.setStatus("VERIFIED"); 
+
+        PickupRequest saved = pickupRequestService.addPickupItem(requestId, item);
+        // Verified photos teach the local classifier, so similar items skip Vision next time
+        localClassifierService.learn(item);
+        return ResponseEntity.ok(saved);
+    }
 }
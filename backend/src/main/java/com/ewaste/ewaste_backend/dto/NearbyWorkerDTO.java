@@ -0,0 +1,59 @@
+package com.ewaste.ewaste_backend.dto;
+
+public class NearbyWorkerDTO {
+
+    private Long workerId;
+    private String username;
+    private String fullname;
+    private String phone;
+    private String city;
+    private String pincode;
+    private Double latitude;
+    private Double longitude;
+    private Boolean availability;
+    private double distanceKm;
+
+    public NearbyWorkerDTO(Long workerId, String username, String fullname, String phone, String city, String pincode,
+                           Double latitude, Double longitude, Boolean availability, double distanceKm) {
+        this.workerId = workerId;
+        this.username = username;
+        this.fullname = fullname;
+        this.phone = phone;
+        this.city = city;
+        this.pincode = pincode;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.availability = availability;
+        this.distanceKm = distanceKm;
+    }
+
+    public Long getWorkerId() { return workerId; }
+    public void setWorkerId(Long workerId) { this.workerId = workerId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getFullname() { return fullname; }
+    public void setFullname(String fullname) { this.fullname = fullname; }
+
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getPincode() { return pincode; }
+    public void setPincode(String pincode) { this.pincode = pincode; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Boolean getAvailability() { return availability; }
+    public void setAvailability(Boolean availability) { this.availability = availability; }
+
+    public double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(double distanceKm) { this.distanceKm = distanceKm; }
+}
@@ -0,0 +1,55 @@
+package com.ewaste.ewaste_backend.dto;
+
+public class PickupItemSummaryDTO {
+
+    private Long id;
+    private Long pickupRequestId;
+    private String wasteType;
+    private String brand;
+    private Double estimatedValue;
+    private Double weightKg;
+    private String status;
+    private Double aiConfidence;
+    private String imageUrl;
+
+    // Used by JPQL constructor expressions in PickupItemRepository
+    public PickupItemSummaryDTO(Long id, Long pickupRequestId, String wasteType, String brand, Double estimatedValue,
+                                Double weightKg, String status, Double aiConfidence, String imageHash) {
+        this.id = id;
+        this.pickupRequestId = pickupRequestId;
+        this.wasteType = wasteType;
+        this.brand = brand;
+        this.estimatedValue = estimatedValue;
+        this.weightKg = weightKg;
+        this.status = status;
+        this.aiConfidence = aiConfidence;
+        this.imageUrl = imageHash == null ? null : "/api/images/" + imageHash;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getPickupRequestId() { return pickupRequestId; }
+    public void setPickupRequestId(Long pickupRequestId) { this.pickupRequestId = pickupRequestId; }
+
+    public String getWasteType() { return wasteType; }
+    public void setWasteType(String wasteType) { this.wasteType = wasteType; }
+
+    public String getBrand() { return brand; }
+    public void setBrand(String brand) { this.brand = brand; }
+
+    public Double getEstimatedValue() { return estimatedValue; }
+    public void setEstimatedValue(Double estimatedValue) { this.estimatedValue = estimatedValue; }
+
+    public Double getWeightKg() { return weightKg; }
+    public void setWeightKg(Double weightKg) { this.weightKg = weightKg; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Double getAiConfidence() { return aiConfidence; }
+    public void setAiConfidence(Double aiConfidence) { this.aiConfidence = aiConfidence; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+}
@@ -0,0 +1,139 @@
+package com.ewaste.ewaste_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List-view projection of a pickup request. Selected column by column in JPQL, so no
+ * entity, lazy collection or image bytes are loaded; the image is referenced by URL.
+ */
+public class PickupSummaryDTO {
+
+    private Long id;
+    private Long userId;
+    private String date;
+    private String time;
+    private String address;
+    private String pincode;
+    private String city;
+    private String state;
+    private String schedulerName;
+    private String phone;
+    private String email;
+    private String wasteType;
+    private String status;
+    private String trackingStatus;
+    private String rescheduleReason;
+    private Double latitude;
+    private Double longitude;
+    private Double weightKg;
+    private Double estimatedValue;
+    private String brand;
+    private String itemDetails;
+    private Long assignedWorkerId;
+    private String imageUrl;
+    private List<PickupItemSummaryDTO> items = new ArrayList<>();
+
+    // Used by JPQL constructor expressions in PickupRequestRepository
+    public PickupSummaryDTO(Long id, Long userId, String date, String time, String address, String pincode,
+                            String city, String state, String schedulerName, String phone, String email,
+                            String wasteType, String status, String trackingStatus, String rescheduleReason,
+                            Double latitude, Double longitude, Double weightKg, Double estimatedValue,
+                            String brand, String itemDetails, Long assignedWorkerId, String imageHash) {
+        this.id = id;
+        this.userId = userId;
+        this.date = date;
+        this.time = time;
+        this.address = address;
+        this.pincode = pincode;
+        this.city = city;
+        this.state = state;
+        this.schedulerName = schedulerName;
+        this.phone = phone;
+        this.email = email;
+        this.wasteType = wasteType;
+        this.status = status;
+        this.trackingStatus = trackingStatus;
+        this.rescheduleReason = rescheduleReason;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.weightKg = weightKg;
+        this.estimatedValue = estimatedValue;
+        this.brand = brand;
+        this.itemDetails = itemDetails;
+        this.assignedWorkerId = assignedWorkerId;
+        this.imageUrl = imageHash == null ? null : "/api/images/" + imageHash;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+
+    public String getTime() { return time; }
+    public void setTime(String time) { this.time = time; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public String getPincode() { return pincode; }
+    public void setPincode(String pincode) { this.pincode = pincode; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public String getSchedulerName() { return schedulerName; }
+    public void setSchedulerName(String schedulerName) { this.schedulerName = schedulerName; }
+
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getWasteType() { return wasteType; }
+    public void setWasteType(String wasteType) { this.wasteType = wasteType; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getTrackingStatus() { return trackingStatus; }
+    public void setTrackingStatus(String trackingStatus) { this.trackingStatus = trackingStatus; }
+
+    public String getRescheduleReason() { return rescheduleReason; }
+    public void setRescheduleReason(String rescheduleReason) { this.rescheduleReason = rescheduleReason; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Double getWeightKg() { return weightKg; }
+    public void setWeightKg(Double weightKg) { this.weightKg = weightKg; }
+
+    public Double getEstimatedValue() { return estimatedValue; }
+    public void setEstimatedValue(Double estimatedValue) { this.estimatedValue = estimatedValue; }
+
+    public String getBrand() { return brand; }
+    public void setBrand(String brand) { this.brand = brand; }
+
+    public String getItemDetails() { return itemDetails; }
+    public void setItemDetails(String itemDetails) { this.itemDetails = itemDetails; }
+
+    public Long getAssignedWorkerId() { return assignedWorkerId; }
+    public void setAssignedWorkerId(Long assignedWorkerId) { this.assignedWorkerId = assignedWorkerId; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public List<PickupItemSummaryDTO> getItems() { return items; }
+    public void setItems(List<PickupItemSummaryDTO> items) { this.items = items; }
+}
@@ -0,0 +1,13 @@
+package com.ewaste.ewaste_backend.model;
+
+/**
+ * An entity that points at an image in the content-addressed image store.
+ */
+public interface ImageReference {
+
+    String getImageHash();
+
+    Long getImageSize();
+
+    String getImageMimeType();
+}
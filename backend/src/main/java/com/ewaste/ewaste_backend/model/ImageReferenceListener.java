@@ -0,0 +1,30 @@
+package com.ewaste.ewaste_backend.model;
+
+import com.ewaste.ewaste_backend.service.ImageBlobService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Keeps image_blobs reference counts in step with inserted and deleted rows.
+ * Instantiated by Hibernate through Spring, so the service is injected.
+ */
+public class ImageReferenceListener {
+
+    @Autowired
+    private ImageBlobService imageBlobService;
+
+    @PostPersist
+    public void onPersist(ImageReference entity) {
+        if (entity.getImageHash() != null) {
+            imageBlobService.retain(entity.getImageHash(), entity.getImageSize(), entity.getImageMimeType());
+        }
+    }
+
+    @PostRemove
+    public void onRemove(ImageReference entity) {
+        if (entity.getImageHash() != null) {
+            imageBlobService.release(entity.getImageHash());
+        }
+    }
+}
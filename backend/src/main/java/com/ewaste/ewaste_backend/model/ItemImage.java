@@ -5,15 +5,21 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
 @Table(name = "item_images")
-public class ItemImage {
+@EntityListeners(ImageReferenceListener.class)
+public class ItemImage implements ImageReference {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Lob
-    @Column(columnDefinition = "LONGBLOB")
-    private byte[] imageData;
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    @Column(name = "image_size")
+    private Long imageSize;
+
+    @Column(name = "image_mime_type", length = 100)
+    private String imageMimeType;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pickup_item_id")
@@ -23,8 +29,17 @@ public class ItemImage {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
-    public byte[] getImageData() { return imageData; }
-    public void setImageData(byte[] imageData) { this.imageData = imageData; }
+    public String getImageHash() { return imageHash; }
+    public void setImageHash(String imageHash) { this.imageHash = imageHash; }
+
+    public Long getImageSize() { return imageSize; }
+    public void setImageSize(Long imageSize) { this.imageSize = imageSize; }
+
+    public String getImageMimeType() { return imageMimeType; }
+    public void setImageMimeType(String imageMimeType) { this.imageMimeType = imageMimeType; }
+
+    // Served by ImageController
+    public String getImageUrl() { return imageHash == null ? null : "/api/images/" + imageHash; }
 
     public PickupItem getPickupItem() { return pickupItem; }
     public void setPickupItem(PickupItem pickupItem) { this.pickupItem = pickupItem; }
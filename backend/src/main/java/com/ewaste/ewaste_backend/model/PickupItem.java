@@ -5,7 +5,8 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "pickup_items")
-public class PickupItem {
+@EntityListeners(ImageReferenceListener.class)
+public class PickupItem implements ImageReference {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,11 +21,21 @@ public class PickupItem {
     private String status; // "PENDING", "VERIFIED", "REJECTED"
     private Double aiConfidence; // To flag low confidence items
 
-    @Lob
-    @Column(name = "image_data", columnDefinition = "LONGBLOB")
-    private byte[] imageData;
-    
-    // Fallback if we store path instead of blob for new items
+    // Whether the item's photos may teach the local classifier; null for items saved before
+    @Column(name = "ai_learnable")
+    private Boolean aiLearnable;
+
+    // Main thumbnail, kept in the content-addressed image store
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    @Column(name = "image_size")
+    private Long imageSize;
+
+    @Column(name = "image_mime_type", length = 100)
+    private String imageMimeType;
+
+    // Relative URL of the thumbnail (/api/images/{hash})
     private String imageUrl; 
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -61,8 +72,17 @@ public class PickupItem {
     public Double getAiConfidence() { return aiConfidence; }
     public void setAiConfidence(Double aiConfidence) { this.aiConfidence = aiConfidence; }
 
-    public byte[] getImageData() { return imageData; }
-    public void setImageData(byte[] imageData) { this.imageData = imageData; }
+    public Boolean getAiLearnable() { return aiLearnable; }
+    public void setAiLearnable(Boolean aiLearnable) { this.aiLearnable = aiLearnable; }
+
+    public String getImageHash() { return imageHash; }
+    public void setImageHash(String imageHash) { this.imageHash = imageHash; }
+
+    public Long getImageSize() { return imageSize; }
+    public void setImageSize(Long imageSize) { this.imageSize = imageSize; }
+
+    public String getImageMimeType() { return imageMimeType; }
+    public void setImageMimeType(String imageMimeType) { this.imageMimeType = imageMimeType; }
 
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "pickup_requests")
-public class PickupRequest {
+@EntityListeners(ImageReferenceListener.class)
+public class PickupRequest implements ImageReference {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,10 +27,15 @@ public class PickupRequest {
     private Double latitude;
     private Double longitude;
 
-    // REVERTED: Store image data as byte[] (BLOB)
-    @Lob
-    @Column(name = "image_data", columnDefinition = "LONGBLOB")
-    private byte[] imageData; // Stores the image as binary data
+    // Image bytes live in the content-addressed image store; the row keeps a reference
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    @Column(name = "image_size")
+    private Long imageSize;
+
+    @Column(name = "image_mime_type", length = 100)
+    private String imageMimeType;
 
     private Double weightKg;
 
@@ -80,9 +86,17 @@ public class PickupRequest {
     public Double getLongitude() { return longitude; }
     public void setLongitude(Double longitude) { this.longitude = longitude; }
 
-    // REVERTED: Getter/Setter for byte[] imageData
-    public byte[] getImageData() { return imageData; }
-    public void setImageData(byte[] imageData) { this.imageData = imageData; }
+    public String getImageHash() { return imageHash; }
+    public void setImageHash(String imageHash) { this.imageHash = imageHash; }
+
+    public Long getImageSize() { return imageSize; }
+    public void setImageSize(Long imageSize) { this.imageSize = imageSize; }
+
+    public String getImageMimeType() { return imageMimeType; }
+    public void setImageMimeType(String imageMimeType) { this.imageMimeType = imageMimeType; }
+
+    // Served by ImageController
+    public String getImageUrl() { return imageHash == null ? null : "/api/images/" + imageHash; }
 
     public Double getWeightKg() { return weightKg; }
     public void setWeightKg(Double weightKg) { this.weightKg = weightKg; }
@@ -3,7 +3,7 @@ package com.ewaste.ewaste_backend.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "workers")
+@Table(name = "workers", indexes = @Index(name = "idx_workers_lat_lng", columnList = "latitude, longitude"))
 public class Worker {
 
     @Id
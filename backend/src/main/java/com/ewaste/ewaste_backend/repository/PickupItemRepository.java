@@ -1,7 +1,10 @@
 package com.ewaste.ewaste_backend.repository;
 
+import com.ewaste.ewaste_backend.dto.PickupItemSummaryDTO;
 import com.ewaste.ewaste_backend.model.PickupItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +12,10 @@ import java.util.List;
 @Repository
 public interface PickupItemRepository extends JpaRepository<PickupItem, Long> {
     List<PickupItem> findByPickupRequestId(Long pickupRequestId);
+
+    // Item rows for a page of pickup summaries, fetched in one query
+    @Query("SELECT new com.ewaste.ewaste_backend.dto.PickupItemSummaryDTO(i.id, i.pickupRequest.id, i.wasteType, i.brand, " +
+           "i.estimatedValue, i.weightKg, i.status, i.aiConfidence, i.imageHash) " +
+           "FROM PickupItem i WHERE i.pickupRequest.id IN :pickupIds ORDER BY i.id")
+    List<PickupItemSummaryDTO> findSummariesByPickupRequestIds(@Param("pickupIds") List<Long> pickupIds);
 }
@@ -1,5 +1,6 @@
 package com.ewaste.ewaste_backend.repository;
 
+import com.ewaste.ewaste_backend.dto.PickupSummaryDTO;
 import com.ewaste.ewaste_backend.model.PickupRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -11,6 +12,12 @@ import java.util.List;
 @Repository
 public interface PickupRequestRepository extends JpaRepository<PickupRequest, Long> {
 
+    // Column list for PickupSummaryDTO projections (no items, no image bytes)
+    String SUMMARY_SELECT = "SELECT new com.ewaste.ewaste_backend.dto.PickupSummaryDTO(" +
+        "p.id, p.userId, p.date, p.time, p.address, p.pincode, p.city, p.state, p.schedulerName, p.phone, p.email, " +
+        "p.wasteType, p.status, p.trackingStatus, p.rescheduleReason, p.latitude, p.longitude, p.weightKg, " +
+        "p.estimatedValue, p.brand, p.itemDetails, p.assignedWorkerId, p.imageHash) FROM PickupRequest p ";
+
     List<PickupRequest> findByUserId(Long userId);
 
     @Query("SELECT pr.date, COUNT(pr) FROM PickupRequest pr WHERE pr.date BETWEEN :startDate AND :endDate GROUP BY pr.date ORDER BY pr.date ASC")
@@ -26,4 +33,37 @@ public interface PickupRequestRepository extends JpaRepository<PickupRequest, Lo
 
     // NEW METHOD: Find pickup requests by status (for AdminController)
     List<PickupRequest> findByStatus(String status);
+
+    // Lightweight rows for batch assignment: id, latitude, longitude, pincode
+    @Query("SELECT p.id, p.latitude, p.longitude, p.pincode FROM PickupRequest p WHERE p.assignedWorkerId IS NULL AND p.status IN :statuses")
+    List<Object[]> findUnassignedLocations(@Param("statuses") List<String> statuses);
+
+    @Query("SELECT p.id, p.latitude, p.longitude, p.pincode FROM PickupRequest p WHERE p.assignedWorkerId IS NULL AND p.id IN :ids")
+    List<Object[]> findUnassignedLocationsByIds(@Param("ids") List<Long> ids);
+
+    @Query("SELECT p.id FROM PickupRequest p WHERE p.assignedWorkerId IS NULL AND p.status IN :statuses ORDER BY p.id")
+    List<Long> findUnassignedIds(@Param("statuses") List<String> statuses);
+
+    @Query("SELECT p.id FROM PickupRequest p WHERE p.assignedWorkerId IS NULL AND p.id IN :ids AND p.status IN :statuses")
+    List<Long> findUnassignedIdsAmong(@Param("ids") List<Long> ids, @Param("statuses") List<String> statuses);
+
+    @Query("SELECT p.assignedWorkerId, COUNT(p) FROM PickupRequest p WHERE p.assignedWorkerId IS NOT NULL AND p.status IN :statuses GROUP BY p.assignedWorkerId")
+    List<Object[]> countActiveAssignmentsByWorker(@Param("statuses") List<String> statuses);
+
+    @Query(SUMMARY_SELECT + "WHERE p.userId = :userId ORDER BY p.id DESC")
+    List<PickupSummaryDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE p.assignedWorkerId = :workerId ORDER BY p.date ASC, p.time ASC")
+    List<PickupSummaryDTO> findSummariesByAssignedWorkerId(@Param("workerId") Long workerId);
+
+    @Query(SUMMARY_SELECT + "WHERE p.assignedWorkerId = :workerId AND p.date = :date AND p.status = :status")
+    List<PickupSummaryDTO> findSummariesByAssignedWorkerIdAndDateAndStatus(@Param("workerId") Long workerId,
+                                                                           @Param("date") String date,
+                                                                           @Param("status") String status);
+
+    @Query(SUMMARY_SELECT + "WHERE p.assignedWorkerId IS NULL AND p.status IN :statuses ORDER BY p.date ASC, p.time ASC")
+    List<PickupSummaryDTO> findUnassignedSummaries(@Param("statuses") List<String> statuses);
+
+    @Query(SUMMARY_SELECT + "ORDER BY p.id DESC")
+    List<PickupSummaryDTO> findAllSummaries();
 }
@@ -2,6 +2,8 @@ package com.ewaste.ewaste_backend.repository;
 
 import com.ewaste.ewaste_backend.model.Worker;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +23,15 @@ public interface WorkerRepository extends JpaRepository<Worker, Long> {
     List<Worker> findByCityAndPincode(String city, String pincode);
     List<Worker> findByCity(String city);
     List<Worker> findByPincode(String pincode);
+
+    // Lightweight rows for the spatial index: id, latitude, longitude, pincode, availability
+    @Query("SELECT w.id, w.latitude, w.longitude, w.pincode, w.availability FROM Worker w")
+    List<Object[]> findAllLocations();
+
+    // Radius-search prefilter over idx_workers_lat_lng:
+    // id, username, fullname, phone, city, pincode, latitude, longitude, availability
+    @Query("SELECT w.id, w.username, w.fullname, w.phone, w.city, w.pincode, w.latitude, w.longitude, w.availability FROM Worker w " +
+           "WHERE w.latitude BETWEEN :minLat AND :maxLat AND w.longitude BETWEEN :minLng AND :maxLng")
+    List<Object[]> findInBoundingBox(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                     @Param("minLng") double minLng, @Param("maxLng") double maxLng);
 }
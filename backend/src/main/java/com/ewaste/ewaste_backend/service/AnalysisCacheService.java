@@ -0,0 +1,132 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.util.LruCache;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache of Vision analysis results keyed by the SHA-256 of the image: a bounded
+ * in-memory LRU in front of the persistent `analysis_cache` table. The same photo
+ * uploaded again (retries, a worker re-adding an item) is answered without a Vision call.
+ * Only successful classifications are cached; failures and degraded results are retried.
+ */
+@Service
+public class AnalysisCacheService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${analysis.cache.max-entries:5000}")
+    private int maxEntries;
+
+    private LruCache<String, Map<String, Object>> memoryCache;
+
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong databaseMisses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        // Results for a given image never change, so entries only leave memory by eviction
+        memoryCache = new LruCache<>(maxEntries, 0);
+
+        String createTableSql = "CREATE TABLE IF NOT EXISTS `analysis_cache` (" +
+                                "`image_hash` CHAR(64) NOT NULL PRIMARY KEY, " +
+                                "`result` TEXT NOT NULL, " +
+                                "`created_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+        try {
+            jdbcTemplate.execute(createTableSql);
+            System.out.println("Ensured 'analysis_cache' table exists.");
+        } catch (Exception e) {
+            System.err.println("Error creating 'analysis_cache' table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cached analysis of an image, first from memory and then from the `analysis_cache` table.
+     * @param imageHash SHA-256 of the image content
+     * @return A copy of the cached result map, or null on a miss
+     */
+    public Map<String, Object> get(String imageHash) {
+        if (imageHash == null) {
+            return null;
+        }
+
+        Map<String, Object> result = memoryCache.get(imageHash);
+        if (result != null) {
+            return new HashMap<>(result);
+        }
+
+        try {
+            List<String> rows = jdbcTemplate.queryForList(
+                "SELECT `result` FROM `analysis_cache` WHERE `image_hash` = ?", String.class, imageHash);
+            if (!rows.isEmpty()) {
+                result = objectMapper.readValue(rows.get(0), new TypeReference<Map<String, Object>>() {});
+                databaseHits.incrementAndGet();
+                memoryCache.put(imageHash, result);
+                return new HashMap<>(result);
+            }
+        } catch (Exception e) {
+            System.err.println("Error reading analysis cache for " + imageHash + ": " + e.getMessage());
+        }
+
+        databaseMisses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores an analysis result in both cache tiers.
+     * @param imageHash SHA-256 of the image content
+     * @param result Analysis result (category, confidence, element breakdown, ...)
+     */
+    public void put(String imageHash, Map<String, Object> result) {
+        if (imageHash == null || result == null) {
+            return;
+        }
+
+        Map<String, Object> copy = new HashMap<>(result);
+        memoryCache.put(imageHash, copy);
+        stores.incrementAndGet();
+
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO `analysis_cache` (`image_hash`, `result`) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE `result` = VALUES(`result`)",
+                imageHash, objectMapper.writeValueAsString(copy)
+            );
+        } catch (Exception e) {
+            System.err.println("Error writing analysis cache for " + imageHash + ": " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memoryEntries", memoryCache.size());
+        stats.put("memoryMaxEntries", memoryCache.getMaxEntries());
+        stats.put("memoryHits", memoryCache.getHits());
+        stats.put("memoryMisses", memoryCache.getMisses());
+        stats.put("memoryEvictions", memoryCache.getEvictions());
+        stats.put("databaseHits", databaseHits.get());
+        stats.put("databaseMisses", databaseMisses.get());
+        stats.put("stores", stores.get());
+        long lookups = memoryCache.getHits() + memoryCache.getMisses();
+        long totalHits = memoryCache.getHits() + databaseHits.get();
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) totalHits / lookups);
+        return stats;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ewaste.ewaste_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs waste image analyses on a dedicated, bounded executor.
+ *
+ * Public analysis requests never run on Tomcat threads beyond a hand-off: the upload is
+ * queued as a job and either polled for later (async mode) or waited on with a timeout.
+ * When the queue is full, submit() throws RejectedExecutionException and the caller
+ * answers 429, so a burst of analyses cannot take threads away from pickup scheduling.
+ * Finished jobs are kept for a limited time so clients can fetch the result.
+ */
+@Service
+public class AnalysisJobService {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    @Autowired
+    private WasteAnalysisService wasteAnalysisService;
+
+    @Value("${analysis.jobs.threads:4}")
+    private int threads;
+
+    @Value("${analysis.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${analysis.jobs.retention-minutes:15}")
+    private long retentionMinutes;
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService cleaner;
+
+    private final ConcurrentHashMap<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /** State of one analysis; fields are written by the worker thread and read by pollers. */
+    public static class AnalysisJob {
+        private final String id;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile Status status = Status.QUEUED;
+        private volatile Map<String, Object> result;
+        private volatile String error;
+        private volatile long finishedAt;
+        private volatile Future<?> future;
+
+        AnalysisJob(String id) {
+            this.id = id;
+        }
+
+        public String getId() { return id; }
+        public Status getStatus() { return status; }
+        public Map<String, Object> getResult() { return result; }
+        public String getError() { return error; }
+        public long getCreatedAt() { return createdAt; }
+        public long getFinishedAt() { return finishedAt; }
+        public Future<?> getFuture() { return future; }
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread thread = new Thread(r, "analysis-job-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "analysis-job-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(this::removeExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        cleaner.shutdownNow();
+    }
+
+    /**
+     * Queues an analysis. The job takes ownership of the upload and closes it when done.
+     * @throws RejectedExecutionException if the queue is full; the upload is left to the caller
+     */
+    public AnalysisJob submit(UploadedImage upload) {
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID().toString());
+        try {
+            job.future = executor.submit(() -> run(job, upload));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+        jobs.put(job.getId(), job);
+        submitted.incrementAndGet();
+        return job;
+    }
+
+    public AnalysisJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /** Rough wait hint for a rejected client, based on the queue and pool size. */
+    public int getRetryAfterSeconds() {
+        return Math.max(1, executor.getQueue().size() / Math.max(1, threads));
+    }
+
+    private void run(AnalysisJob job, UploadedImage upload) {
+        job.status = Status.RUNNING;
+        try (upload) {
+            job.result = wasteAnalysisService.analyzeWasteImage(upload);
+            job.status = Status.DONE;
+            completed.incrementAndGet();
+        } catch (Exception e) {
+            job.error = "Could not analyze image";
+            job.status = Status.FAILED;
+            failed.incrementAndGet();
+            System.err.println("Analysis job " + job.getId() + " failed: " + e.getMessage());
+        } finally {
+            job.finishedAt = System.currentTimeMillis();
+        }
+    }
+
+    private void removeExpired() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        jobs.values().removeIf(job -> job.getFinishedAt() > 0 && job.getFinishedAt() < cutoff);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("retainedJobs", jobs.size());
+        stats.put("submitted", submitted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+}
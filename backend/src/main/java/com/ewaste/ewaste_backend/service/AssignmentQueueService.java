@@ -0,0 +1,246 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.model.PickupRequest;
+import com.ewaste.ewaste_backend.repository.PickupRequestRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background auto-assignment of newly scheduled pickups.
+ *
+ * Scheduling a pickup only enqueues its ID (after the insert commits); a small pool of
+ * consumer threads drains the queue. Each consumer waits a short window after the first
+ * pickup arrives so that a burst is assigned together through BatchAssignmentService.
+ * Pickups still unassigned at startup are re-enqueued, so nothing is lost on restart.
+ * Pickups that no worker could take, or whose batch failed, are queued again after an
+ * exponential backoff. Consumers start only after the worker spatial index and the
+ * load counters are built; pickups scheduled before that wait in the queue.
+ */
+@Service
+public class AssignmentQueueService {
+
+    private static final int MAX_ASSIGNMENTS_PER_WORKER = 5;
+
+    @Autowired
+    private BatchAssignmentService batchAssignmentService;
+
+    @Autowired
+    private AutoAssignmentService autoAssignmentService;
+
+    @Autowired
+    private PickupRequestRepository pickupRequestRepository;
+
+    @Value("${assignment.queue.consumers:2}")
+    private int consumers;
+
+    @Value("${assignment.queue.batch-window-ms:200}")
+    private long batchWindowMs;
+
+    @Value("${assignment.queue.max-batch:200}")
+    private int maxBatch;
+
+    @Value("${assignment.queue.retry-initial-ms:5000}")
+    private long retryInitialMs;
+
+    @Value("${assignment.queue.retry-max-ms:600000}")
+    private long retryMaxMs;
+
+    private final LinkedBlockingQueue<QueuedPickup> queue = new LinkedBlockingQueue<>();
+    private ExecutorService consumerPool;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong assigned = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong totalLagMs = new AtomicLong();
+    private final AtomicLong maxLagMs = new AtomicLong();
+    private final AtomicLong lastLagMs = new AtomicLong();
+
+    /** attempt counts earlier assignment attempts that left the pickup unassigned. */
+    private record QueuedPickup(Long pickupId, long enqueuedAt, int attempt) {
+    }
+
+    /**
+     * Runs after WorkerSpatialIndex.rebuild and WorkerLoadService.start (lower @Order
+     * values); ApplicationReadyEvent listeners run one after another, so the index and the
+     * load counters are complete before the first batch is assigned.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void start() {
+        running = true;
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "assignment-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadNumber = new AtomicInteger();
+        consumerPool = Executors.newFixedThreadPool(consumers, r -> {
+            Thread thread = new Thread(r, "assignment-consumer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < consumers; i++) {
+            consumerPool.submit(this::consume);
+        }
+
+        // Recover pickups that were scheduled but never assigned (e.g. before a restart)
+        List<Long> pending = pickupRequestRepository.findUnassignedIds(BatchAssignmentService.UNASSIGNED_STATUSES);
+        pending.forEach(this::enqueue);
+        System.out.println("Assignment queue started with " + consumers + " consumers, recovered " + pending.size() + " unassigned pickups");
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (consumerPool != null) {
+            consumerPool.shutdownNow();
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a pickup for background assignment.
+     */
+    public void enqueue(Long pickupId) {
+        if (pickupId == null) {
+            return;
+        }
+        queue.offer(new QueuedPickup(pickupId, System.currentTimeMillis(), 0));
+        enqueued.incrementAndGet();
+    }
+
+    private void consume() {
+        while (running) {
+            List<QueuedPickup> batch = new ArrayList<>();
+            try {
+                batch.add(queue.take());
+                // Micro-batching window: collect whatever else arrives shortly after
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindowMs);
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    QueuedPickup next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            process(batch);
+        }
+    }
+
+    private void process(List<QueuedPickup> batch) {
+        List<Long> pickupIds = batch.stream().map(QueuedPickup::pickupId).distinct().toList();
+        List<Long> unplaced;
+        try {
+            Map<String, Object> summary = batchAssignmentService.assignPickups(pickupIds, MAX_ASSIGNMENTS_PER_WORKER);
+            assigned.addAndGet(((Number) summary.get("assignedCount")).longValue());
+
+            // Pickups the batch could not place (all nearby workers full) fall back to
+            // the single-pickup path, which assigns the nearest worker regardless of capacity
+            unplaced = new ArrayList<>();
+            for (Long pickupId : pickupRequestRepository.findUnassignedIdsAmong(pickupIds, BatchAssignmentService.UNASSIGNED_STATUSES)) {
+                PickupRequest pickupRequest = pickupRequestRepository.findById(pickupId).orElse(null);
+                if (pickupRequest != null && autoAssignmentService.smartAutoAssignPickup(pickupRequest, MAX_ASSIGNMENTS_PER_WORKER) != null) {
+                    assigned.incrementAndGet();
+                } else if (pickupRequest != null) {
+                    unplaced.add(pickupId);
+                }
+            }
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            System.err.println("❌ ERROR: Background assignment failed for pickups " + pickupIds + ": " + e.getMessage());
+            e.printStackTrace();
+            unplaced = pickupIds;
+        }
+        retryLater(batch, unplaced);
+
+        long now = System.currentTimeMillis();
+        for (QueuedPickup queued : batch) {
+            long lag = now - queued.enqueuedAt();
+            totalLagMs.addAndGet(lag);
+            maxLagMs.accumulateAndGet(lag, Math::max);
+            lastLagMs.set(lag);
+        }
+        processed.addAndGet(batch.size());
+        batches.incrementAndGet();
+    }
+
+    /**
+     * Queues the unplaced pickups again after a delay that doubles with every attempt, up
+     * to retry-max-ms. A pickup is retried until it is assigned or leaves the unassigned
+     * statuses.
+     */
+    private void retryLater(List<QueuedPickup> batch, List<Long> unplaced) {
+        if (unplaced.isEmpty() || retryScheduler == null) {
+            return;
+        }
+        Set<Long> retry = new HashSet<>(unplaced);
+        for (QueuedPickup queued : batch) {
+            if (!retry.remove(queued.pickupId())) {
+                continue; // placed, or a duplicate entry of a pickup already rescheduled
+            }
+            int attempt = queued.attempt() + 1;
+            long delayMs = Math.min(retryMaxMs, retryInitialMs << Math.min(attempt - 1, 20));
+            try {
+                retryScheduler.schedule(() -> queue.offer(new QueuedPickup(queued.pickupId(), queued.enqueuedAt(), attempt)),
+                                        delayMs, TimeUnit.MILLISECONDS);
+                retries.incrementAndGet();
+            } catch (RejectedExecutionException e) {
+                return; // shutting down; startup recovery picks the pickup up again
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("consumers", consumers);
+        stats.put("enqueued", enqueued.get());
+        stats.put("processed", processed.get());
+        stats.put("assigned", assigned.get());
+        stats.put("batches", batches.get());
+        stats.put("failedBatches", failures.get());
+        stats.put("retries", retries.get());
+        long done = processed.get();
+        stats.put("averageBatchSize", batches.get() == 0 ? 0.0 : (double) done / batches.get());
+        stats.put("lastAssignmentLagMs", lastLagMs.get());
+        stats.put("maxAssignmentLagMs", maxLagMs.get());
+        stats.put("averageAssignmentLagMs", done == 0 ? 0.0 : (double) totalLagMs.get() / done);
+        return stats;
+    }
+}
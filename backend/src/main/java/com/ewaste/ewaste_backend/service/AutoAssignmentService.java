@@ -1,5 +1,6 @@
 package com.ewaste.ewaste_backend.service;
 
+import com.ewaste.ewaste_backend.dto.NearbyWorkerDTO;
 import com.ewaste.ewaste_backend.model.PickupRequest;
 import com.ewaste.ewaste_backend.model.Worker;
 import com.ewaste.ewaste_backend.repository.WorkerRepository;
@@ -8,7 +9,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AutoAssignmentService {
@@ -22,6 +26,18 @@ public class AutoAssignmentService {
     @Autowired
     private WorkerRepository workerRepository;
 
+    @Autowired
+    private WorkerSpatialIndex workerSpatialIndex;
+
+    @Autowired
+    private BatchAssignmentService batchAssignmentService;
+
+    @Autowired
+    private WorkerLoadService workerLoadService;
+
+    /** How many nearest candidates to examine before widening the search. */
+    private static final int CANDIDATE_BATCH = 10;
+
     /**
      * Automatically assign a pickup request to the nearest available worker
      * @param pickupRequest The pickup request to assign
@@ -33,22 +49,23 @@ public class AutoAssignmentService {
             return null;
         }
 
-        // Get all available workers (you might want to add filters like active status, availability, etc.)
-        List<Worker> availableWorkers = workerRepository.findAll();
-        
-        if (availableWorkers.isEmpty()) {
+        double[] pickupCoords = resolvePickupCoordinates(pickupRequest);
+        if (pickupCoords == null) {
+            return null;
+        }
+
+        // Find the nearest available worker from the spatial index
+        List<WorkerSpatialIndex.Neighbor> nearest = workerSpatialIndex.nearest(pickupCoords[0], pickupCoords[1], 1, null);
+        if (nearest.isEmpty()) {
             return null;
         }
 
-        // Find the nearest worker
-        Worker nearestWorker = distanceCalculationService.findNearestWorker(
-            pickupRequest.getPincode(), 
-            availableWorkers
-        );
+        Worker nearestWorker = workerRepository.findById(nearest.get(0).workerId()).orElse(null);
 
         if (nearestWorker != null) {
             try {
                 // Assign the pickup to the nearest worker directly
+                workerLoadService.onTransition(pickupRequest.getAssignedWorkerId(), pickupRequest.getStatus(), nearestWorker.getId(), "ASSIGNED");
                 pickupRequest.setAssignedWorkerId(nearestWorker.getId());
                 pickupRequest.setStatus("ASSIGNED");
                 pickupRequestRepository.save(pickupRequest);
@@ -64,42 +81,58 @@ public class AutoAssignmentService {
     }
 
     /**
-     * Automatically assign multiple pickup requests to workers
+     * Automatically assign multiple pickup requests to workers as one batch
      * @param pickupRequests List of pickup requests to assign
      * @return Number of successfully assigned pickups
      */
     @Transactional
     public int autoAssignMultiplePickups(List<PickupRequest> pickupRequests) {
-        int assignedCount = 0;
-        
-        for (PickupRequest pickupRequest : pickupRequests) {
-            Worker assignedWorker = autoAssignPickup(pickupRequest);
-            if (assignedWorker != null) {
-                assignedCount++;
-            }
-        }
-        
-        return assignedCount;
+        List<Long> pickupIds = pickupRequests.stream().map(PickupRequest::getId).toList();
+        Map<String, Object> summary = batchAssignmentService.assignPickups(pickupIds, 5);
+        return (Integer) summary.get("assignedCount");
     }
 
     /**
      * Find workers within a specific radius of a pickup location
+     * Only workers inside the surrounding lat/lng box are read (idx_workers_lat_lng);
+     * the exact haversine distance is then checked for each of them.
      * @param pickupPincode Pincode of the pickup location
      * @param radiusKm Radius in kilometers
-     * @return List of workers within the radius
+     * @param limit Maximum number of workers to return, or null for all
+     * @return Workers within the radius, nearest first
      */
-    public List<Worker> findNearbyWorkers(String pickupPincode, double radiusKm) {
-        List<Worker> allWorkers = workerRepository.findAll();
-        return distanceCalculationService.findWorkersWithinRadius(pickupPincode, allWorkers, radiusKm);
+    public List<NearbyWorkerDTO> findNearbyWorkers(String pickupPincode, double radiusKm, Integer limit) {
+        double[] pickupCoords = distanceCalculationService.geocodeAddress(pickupPincode);
+        if (pickupCoords == null) {
+            return new ArrayList<>();
+        }
+
+        double[] box = DistanceCalculationService.boundingBox(pickupCoords[0], pickupCoords[1], radiusKm);
+        List<NearbyWorkerDTO> nearbyWorkers = new ArrayList<>();
+        for (Object[] row : workerRepository.findInBoundingBox(box[0], box[1], box[2], box[3])) {
+            Double latitude = (Double) row[6];
+            Double longitude = (Double) row[7];
+            double distance = distanceCalculationService.calculateDistance(pickupCoords[0], pickupCoords[1], latitude, longitude);
+            if (distance <= radiusKm) {
+                nearbyWorkers.add(new NearbyWorkerDTO((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                    (String) row[4], (String) row[5], latitude, longitude, (Boolean) row[8], distance));
+            }
+        }
+
+        nearbyWorkers.sort(Comparator.comparingDouble(NearbyWorkerDTO::getDistanceKm));
+        if (limit != null && limit >= 0 && nearbyWorkers.size() > limit) {
+            return new ArrayList<>(nearbyWorkers.subList(0, limit));
+        }
+        return nearbyWorkers;
     }
 
     /**
      * Get assignment statistics for a worker
      * @param workerId Worker ID
-     * @return Number of assigned pickups
+     * @return Number of active (not completed or cancelled) assigned pickups
      */
     public long getWorkerAssignmentCount(Long workerId) {
-        return pickupRequestRepository.findByAssignedWorkerId(workerId).size();
+        return workerLoadService.getLoad(workerId);
     }
 
     /**
@@ -126,50 +159,41 @@ public class AutoAssignmentService {
             return null;
         }
 
-        // Get all workers
-        List<Worker> allWorkers = workerRepository.findAll();
-        System.out.println("📋 Found " + allWorkers.size() + " total workers in database");
-        
-        if (allWorkers.isEmpty()) {
-            System.out.println("❌ No workers found in database");
+        double[] pickupCoords = resolvePickupCoordinates(pickupRequest);
+        if (pickupCoords == null) {
+            System.out.println("❌ Could not locate pickup " + pickupRequest.getId() + " (Pincode: " + pickupRequest.getPincode() + ")");
             return null;
         }
 
-        // Filter available workers (not at max capacity)
-        List<Worker> availableWorkers = allWorkers.stream()
-            .filter(worker -> {
-                boolean available = isWorkerAvailable(worker.getId(), maxAssignmentsPerWorker);
-                if (!available) {
-                    System.out.println("⚠️ Worker " + worker.getUsername() + " (ID: " + worker.getId() + 
-                                     ", Pincode: " + worker.getPincode() + ") is at max capacity");
+        // Nearest available worker with spare capacity; widen the candidate set if the closest ones are full
+        Long nearestWorkerId = null;
+        int indexedWorkers = workerSpatialIndex.size();
+        for (int k = CANDIDATE_BATCH; nearestWorkerId == null; k *= 2) {
+            List<WorkerSpatialIndex.Neighbor> candidates = workerSpatialIndex.nearest(pickupCoords[0], pickupCoords[1], k, null);
+            for (WorkerSpatialIndex.Neighbor candidate : candidates) {
+                if (isWorkerAvailable(candidate.workerId(), maxAssignmentsPerWorker)) {
+                    nearestWorkerId = candidate.workerId();
+                    System.out.println("✅ Nearest worker with capacity is " + String.format("%.2f", candidate.distanceKm()) + " km away");
+                    break;
                 }
-                return available;
-            })
-            .toList();
-
-        System.out.println("✅ Found " + availableWorkers.size() + " available workers");
+            }
+            if (candidates.size() < k || k >= indexedWorkers) {
+                break;
+            }
+        }
 
-        if (availableWorkers.isEmpty()) {
+        if (nearestWorkerId == null) {
             // If no workers are available, assign to the nearest worker anyway
             System.out.println("⚠️ No available workers found, assigning to nearest worker regardless of capacity");
-            availableWorkers = allWorkers;
+            List<WorkerSpatialIndex.Neighbor> nearest = workerSpatialIndex.nearest(pickupCoords[0], pickupCoords[1], 1, null);
+            if (!nearest.isEmpty()) {
+                nearestWorkerId = nearest.get(0).workerId();
+            }
         }
 
-        // Find the nearest available worker
-        Worker nearestWorker;
-        if (pickupRequest.getLatitude() != null && pickupRequest.getLongitude() != null) {
-            System.out.println("✅ Using coordinates for assignment: " + pickupRequest.getLatitude() + ", " + pickupRequest.getLongitude());
-            nearestWorker = distanceCalculationService.findNearestWorker(
-                pickupRequest.getLatitude(),
-                pickupRequest.getLongitude(),
-                availableWorkers
-            );
-        } else {
-            System.out.println("⚠️ No coordinates found, falling back to pincode assignment: " + pickupRequest.getPincode());
-            nearestWorker = distanceCalculationService.findNearestWorker(
-                pickupRequest.getPincode(), 
-                availableWorkers
-            );
+        Worker nearestWorker = null;
+        if (nearestWorkerId != null) {
+            nearestWorker = workerRepository.findById(nearestWorkerId).orElse(null);
         }
 
         if (nearestWorker != null) {
@@ -179,6 +203,7 @@ public class AutoAssignmentService {
                                  ", Pincode: " + nearestWorker.getPincode() + ")");
                 
                 // Assign the pickup to the nearest worker directly
+                workerLoadService.onTransition(pickupRequest.getAssignedWorkerId(), pickupRequest.getStatus(), nearestWorker.getId(), "ASSIGNED");
                 pickupRequest.setAssignedWorkerId(nearestWorker.getId());
                 pickupRequest.setStatus("ASSIGNED");
                 pickupRequestRepository.save(pickupRequest);
@@ -194,4 +219,16 @@ public class AutoAssignmentService {
 
         return null;
     }
+
+    /**
+     * Pickup coordinates: the stored latitude/longitude, or the geocoded pincode.
+     * @return [latitude, longitude], or null if the pickup cannot be located
+     */
+    private double[] resolvePickupCoordinates(PickupRequest pickupRequest) {
+        if (pickupRequest.getLatitude() != null && pickupRequest.getLongitude() != null) {
+            return new double[]{pickupRequest.getLatitude(), pickupRequest.getLongitude()};
+        }
+        System.out.println("⚠️ No coordinates found, falling back to pincode: " + pickupRequest.getPincode());
+        return distanceCalculationService.geocodeAddress(pickupRequest.getPincode());
+    }
 }
@@ -0,0 +1,214 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.repository.PickupRequestRepository;
+import com.ewaste.ewaste_backend.util.AssignmentSolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns many pickups at once by solving one global min-cost assignment instead of
+ * placing pickups greedily one at a time.
+ *
+ * For every pickup the nearest workers with spare capacity are taken from the spatial
+ * index, giving a sparse pickup x worker distance matrix. AssignmentSolver places as
+ * many pickups as capacity allows with the least total travel distance, and all
+ * assignments are written back in a single JDBC batch.
+ */
+@Service
+public class BatchAssignmentService {
+
+    public static final List<String> UNASSIGNED_STATUSES = List.of("PENDING", "Paid - Pending Pickup");
+
+    @Autowired
+    private PickupRequestRepository pickupRequestRepository;
+
+    @Autowired
+    private WorkerSpatialIndex workerSpatialIndex;
+
+    @Autowired
+    private DistanceCalculationService distanceCalculationService;
+
+    @Autowired
+    private WorkerLoadService workerLoadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Candidate workers considered per pickup. */
+    @Value("${assignment.batch.candidates-per-pickup:8}")
+    private int candidatesPerPickup;
+
+    /** Largest pickups x worker-slot matrix solved exactly; bigger batches use greedy-with-regret. */
+    @Value("${assignment.batch.max-dense-cells:2000000}")
+    private long maxDenseCells;
+
+    /**
+     * Assigns every unassigned pending pickup.
+     * @param maxAssignmentsPerWorker Maximum assignments per worker
+     * @return Summary of the run (counts, total distance, solver used, timing)
+     */
+    @Transactional
+    public Map<String, Object> assignAllUnassigned(int maxAssignmentsPerWorker) {
+        return assign(pickupRequestRepository.findUnassignedLocations(UNASSIGNED_STATUSES), maxAssignmentsPerWorker);
+    }
+
+    /**
+     * Assigns the given pickups, skipping any that have been assigned in the meantime.
+     * @param pickupIds Pickup request IDs
+     * @param maxAssignmentsPerWorker Maximum assignments per worker
+     * @return Summary of the run (counts, total distance, solver used, timing)
+     */
+    @Transactional
+    public Map<String, Object> assignPickups(List<Long> pickupIds, int maxAssignmentsPerWorker) {
+        if (pickupIds.isEmpty()) {
+            return assign(List.of(), maxAssignmentsPerWorker);
+        }
+        return assign(pickupRequestRepository.findUnassignedLocationsByIds(pickupIds), maxAssignmentsPerWorker);
+    }
+
+    private Map<String, Object> assign(List<Object[]> pickupRows, int maxAssignmentsPerWorker) {
+        long startedAt = System.currentTimeMillis();
+
+        // Locate pickups; each distinct pincode is geocoded at most once
+        Map<String, double[]> pincodeCoords = new HashMap<>();
+        List<Long> pickupIds = new ArrayList<>();
+        List<double[]> pickupCoords = new ArrayList<>();
+        for (Object[] row : pickupRows) {
+            double[] coords;
+            if (row[1] != null && row[2] != null) {
+                coords = new double[]{(Double) row[1], (Double) row[2]};
+            } else if (row[3] != null) {
+                coords = pincodeCoords.computeIfAbsent((String) row[3], distanceCalculationService::geocodeAddress);
+            } else {
+                coords = null;
+            }
+            if (coords != null) {
+                pickupIds.add((Long) row[0]);
+                pickupCoords.add(coords);
+            }
+        }
+
+        // Sparse cost matrix over the nearest workers that still have room
+        int n = pickupIds.size();
+        Map<Long, Integer> workerIndex = new HashMap<>();
+        List<Long> workerIds = new ArrayList<>();
+        int[][] candidates = new int[n][];
+        double[][] costs = new double[n][];
+        for (int i = 0; i < n; i++) {
+            double[] coords = pickupCoords.get(i);
+            List<WorkerSpatialIndex.Neighbor> nearest = workerSpatialIndex.nearest(coords[0], coords[1], candidatesPerPickup,
+                workerId -> workerLoadService.getLoad(workerId) < maxAssignmentsPerWorker);
+            candidates[i] = new int[nearest.size()];
+            costs[i] = new double[nearest.size()];
+            for (int c = 0; c < nearest.size(); c++) {
+                WorkerSpatialIndex.Neighbor neighbor = nearest.get(c);
+                Integer index = workerIndex.get(neighbor.workerId());
+                if (index == null) {
+                    index = workerIds.size();
+                    workerIndex.put(neighbor.workerId(), index);
+                    workerIds.add(neighbor.workerId());
+                }
+                candidates[i][c] = index;
+                costs[i][c] = neighbor.distanceKm();
+            }
+        }
+
+        int[] capacity = new int[workerIds.size()];
+        for (int w = 0; w < capacity.length; w++) {
+            capacity[w] = Math.max(0, maxAssignmentsPerWorker - workerLoadService.getLoad(workerIds.get(w)));
+        }
+
+        AssignmentSolver.Result result = AssignmentSolver.solve(candidates, costs, capacity, maxDenseCells);
+        int[] assignment = result.getAssignment();
+
+        List<Object[]> updates = new ArrayList<>();
+        double totalDistanceKm = 0.0;
+        for (int i = 0; i < n; i++) {
+            if (assignment[i] < 0) {
+                continue;
+            }
+            updates.add(new Object[]{workerIds.get(assignment[i]), pickupIds.get(i)});
+            for (int c = 0; c < candidates[i].length; c++) {
+                if (candidates[i][c] == assignment[i]) {
+                    totalDistanceKm += costs[i][c];
+                    break;
+                }
+            }
+        }
+
+        // One batched write; the IS NULL guard leaves pickups claimed concurrently alone
+        int assignedCount = 0;
+        if (!updates.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE `pickup_requests` SET `assigned_worker_id` = ?, `status` = 'ASSIGNED' WHERE `id` = ? AND `assigned_worker_id` IS NULL",
+                updates
+            );
+            boolean[] written = writtenRows(updates, updated);
+            for (int u = 0; u < updates.size(); u++) {
+                if (written[u]) {
+                    assignedCount++;
+                    workerLoadService.onTransition(null, null, (Long) updates.get(u)[0], "ASSIGNED");
+                }
+            }
+        }
+
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+        System.out.println("Batch assignment: " + assignedCount + " of " + pickupRows.size() + " pickups assigned using " +
+                           result.getMethod() + " in " + elapsedMs + " ms, total distance " + String.format("%.2f", totalDistanceKm) + " km");
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalUnassigned", pickupRows.size());
+        summary.put("located", n);
+        summary.put("assignedCount", assignedCount);
+        summary.put("totalDistanceKm", totalDistanceKm);
+        summary.put("solver", result.getMethod().name());
+        summary.put("elapsedMs", elapsedMs);
+        return summary;
+    }
+
+    /**
+     * Which of the batched updates changed their row. Rewritten MySQL batches report
+     * SUCCESS_NO_INFO (-2) for every row, including rows the IS NULL guard skipped, so
+     * then the rows are re-read and an update counts only if the pickup now holds the
+     * worker this batch chose.
+     */
+    private boolean[] writtenRows(List<Object[]> updates, int[] updated) {
+        boolean[] written = new boolean[updates.size()];
+        boolean known = true;
+        for (int u = 0; u < updated.length; u++) {
+            if (updated[u] < 0) {
+                known = false;
+                break;
+            }
+            written[u] = updated[u] > 0;
+        }
+        if (known && updated.length == updates.size()) {
+            return written;
+        }
+
+        Map<Long, Long> assignedWorkers = new HashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(updates.size(), "?"));
+        Object[] ids = updates.stream().map(update -> update[1]).toArray();
+        jdbcTemplate.query(
+            "SELECT `id`, `assigned_worker_id` FROM `pickup_requests` WHERE `id` IN (" + placeholders + ")",
+            rs -> {
+                assignedWorkers.put(rs.getLong("id"), rs.getLong("assigned_worker_id"));
+            },
+            ids
+        );
+        for (int u = 0; u < updates.size(); u++) {
+            written[u] = updates.get(u)[0].equals(assignedWorkers.get((Long) updates.get(u)[1]));
+        }
+        return written;
+    }
+}
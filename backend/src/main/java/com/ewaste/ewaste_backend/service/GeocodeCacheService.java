@@ -0,0 +1,202 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.util.LruCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache for geocoding results: a bounded in-memory LRU in front of the
+ * persistent `geocode_cache` table. Keys are normalized addresses/pincodes so that
+ * " 411001 " and "411001" share one entry.
+ */
+@Service
+public class GeocodeCacheService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${geocode.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${geocode.cache.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${geocode.cache.persistent-ttl-days:90}")
+    private long persistentTtlDays;
+
+    private LruCache<String, double[]> memoryCache;
+
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong databaseMisses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        memoryCache = new LruCache<>(maxEntries, ttlMinutes * 60_000L);
+
+        String createTableSql = "CREATE TABLE IF NOT EXISTS `geocode_cache` (" +
+                                "`address_key` VARCHAR(255) NOT NULL PRIMARY KEY, " +
+                                "`latitude` DOUBLE NOT NULL, " +
+                                "`longitude` DOUBLE NOT NULL, " +
+                                "`updated_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+        try {
+            jdbcTemplate.execute(createTableSql);
+            System.out.println("Ensured 'geocode_cache' table exists.");
+        } catch (Exception e) {
+            System.err.println("Error creating 'geocode_cache' table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Normalizes an address or pincode into a cache key.
+     * @param address Raw address/pincode
+     * @return Normalized key, or null if the address is blank
+     */
+    public static String normalize(String address) {
+        if (address == null) {
+            return null;
+        }
+        String key = address.trim().toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .replaceAll("\\s*,\\s*", ",")
+                .replaceAll("[,.;]+$", "");
+        if (key.isEmpty()) {
+            return null;
+        }
+        return key.length() > 255 ? key.substring(0, 255) : key;
+    }
+
+    /**
+     * Looks up cached coordinates, first in memory and then in the `geocode_cache` table.
+     * @param address Pincode or address string
+     * @return [latitude, longitude], or null on a miss
+     */
+    public double[] get(String address) {
+        String key = normalize(address);
+        if (key == null) {
+            return null;
+        }
+
+        double[] coords = memoryCache.get(key);
+        if (coords != null) {
+            return coords;
+        }
+
+        try {
+            Timestamp oldest = Timestamp.from(Instant.now().minus(persistentTtlDays, ChronoUnit.DAYS));
+            List<double[]> rows = jdbcTemplate.query(
+                "SELECT `latitude`, `longitude` FROM `geocode_cache` WHERE `address_key` = ? AND `updated_at` >= ?",
+                (rs, rowNum) -> new double[]{rs.getDouble(1), rs.getDouble(2)},
+                key, oldest
+            );
+            if (!rows.isEmpty()) {
+                databaseHits.incrementAndGet();
+                memoryCache.put(key, rows.get(0));
+                return rows.get(0);
+            }
+        } catch (Exception e) {
+            System.err.println("Error reading geocode cache for " + key + ": " + e.getMessage());
+        }
+
+        databaseMisses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Looks up coordinates in the `geocode_cache` table regardless of age. Used as the
+     * degraded path while the Maps API is unavailable; stale coordinates beat none.
+     * @param address Pincode or address string
+     * @return [latitude, longitude], or null if the address was never resolved
+     */
+    public double[] getStale(String address) {
+        String key = normalize(address);
+        if (key == null) {
+            return null;
+        }
+        try {
+            List<double[]> rows = jdbcTemplate.query(
+                "SELECT `latitude`, `longitude` FROM `geocode_cache` WHERE `address_key` = ?",
+                (rs, rowNum) -> new double[]{rs.getDouble(1), rs.getDouble(2)},
+                key
+            );
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (Exception e) {
+            System.err.println("Error reading geocode cache for " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores coordinates in both cache tiers.
+     * @param address Pincode or address string
+     * @param coords [latitude, longitude]
+     */
+    public void put(String address, double[] coords) {
+        String key = normalize(address);
+        if (key == null || coords == null) {
+            return;
+        }
+
+        memoryCache.put(key, coords);
+        stores.incrementAndGet();
+
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO `geocode_cache` (`address_key`, `latitude`, `longitude`, `updated_at`) VALUES (?, ?, ?, CURRENT_TIMESTAMP) " +
+                "ON DUPLICATE KEY UPDATE `latitude` = VALUES(`latitude`), `longitude` = VALUES(`longitude`), `updated_at` = CURRENT_TIMESTAMP",
+                key, coords[0], coords[1]
+            );
+        } catch (Exception e) {
+            System.err.println("Error writing geocode cache for " + key + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the most frequently used pickup and worker pincodes, busiest first.
+     * @param limit Maximum number of pincodes to return
+     */
+    public List<String> findHotPincodes(int limit) {
+        try {
+            return jdbcTemplate.queryForList(
+                "SELECT `pincode` FROM (" +
+                "  SELECT `pincode` FROM `pickup_requests` WHERE `pincode` IS NOT NULL AND `pincode` <> '' " +
+                "  UNION ALL " +
+                "  SELECT `pincode` FROM `workers` WHERE `pincode` IS NOT NULL AND `pincode` <> ''" +
+                ") p GROUP BY `pincode` ORDER BY COUNT(*) DESC LIMIT ?",
+                String.class, limit
+            );
+        } catch (Exception e) {
+            System.err.println("Error loading hot pincodes for geocode warm-up: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memoryEntries", memoryCache.size());
+        stats.put("memoryMaxEntries", memoryCache.getMaxEntries());
+        stats.put("memoryHits", memoryCache.getHits());
+        stats.put("memoryMisses", memoryCache.getMisses());
+        stats.put("memoryEvictions", memoryCache.getEvictions());
+        stats.put("databaseHits", databaseHits.get());
+        stats.put("databaseMisses", databaseMisses.get());
+        stats.put("stores", stores.get());
+        long lookups = memoryCache.getHits() + memoryCache.getMisses();
+        long totalHits = memoryCache.getHits() + databaseHits.get();
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) totalHits / lookups);
+        return stats;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ewaste.ewaste_backend.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.Optional;
 
@@ -10,6 +11,9 @@ import java.util.Optional;
 @Service
 public class GoMapsProService {
 
+    @Autowired
+    private OfflineGeocoderService offlineGeocoderService;
+
     public GoMapsProService() {
         // Default constructor
     }
@@ -28,6 +32,12 @@ public class GoMapsProService {
         // (e.g., GoMaps Pro Geocoding API).
         System.out.println("GoMapsProService: Geocoding address: " + address);
 
+        // Offline pincode dataset first; the lookup below is only a fallback on a miss.
+        double[] offlineCoords = offlineGeocoderService.lookup(address);
+        if (offlineCoords != null) {
+            return Optional.of(offlineCoords);
+        }
+
         // Placeholder for demonstration:
         // In a real application, you would make an API call and parse the response.
         if (address != null && !address.trim().isEmpty()) {
@@ -3,16 +3,29 @@ package com.ewaste.ewaste_backend.service;
 import com.ewaste.ewaste_backend.request.DirectionsRequest;
 import com.ewaste.ewaste_backend.request.FindPlaceRequest;
 import com.ewaste.ewaste_backend.request.NearbySearchRequest;
+import com.ewaste.ewaste_backend.util.DependencyGuard;
+import com.ewaste.ewaste_backend.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * A service class for interacting with the Google Maps Platform APIs.
  * This service acts as a secure proxy for front-end requests.
+ *
+ * Concurrent identical requests (same normalized input) are coalesced, so a burst of
+ * lookups for one pincode or one map view costs a single upstream call. Every upstream
+ * call runs behind a DependencyGuard; while Maps is failing or saturated, calls fail fast
+ * with IllegalStateException instead of tying up request threads.
  */
-// filepath: [GoogleMapsApiService.java](http://_vscodecontentref_/3)
-// ...existing code...
 @Service
 public class GoogleMapsApiService {
 
@@ -20,52 +33,131 @@ public class GoogleMapsApiService {
     private String apiKey;
 
     private static final String BASE_URL = "https://maps.googleapis.com/maps/api";
-    private final RestTemplate restTemplate;
 
-    public GoogleMapsApiService() {
-        this.restTemplate = new RestTemplate();
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${resilience.maps.max-concurrent:20}")
+    private int maxConcurrent;
+
+    @Value("${resilience.maps.acquire-timeout-ms:100}")
+    private long acquireTimeoutMs;
+
+    @Value("${resilience.maps.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${resilience.maps.open-seconds:30}")
+    private long openSeconds;
+
+    private DependencyGuard mapsGuard;
+
+    private final SingleFlight<String, String> findPlaceCalls = new SingleFlight<>();
+    private final SingleFlight<String, String> nearbySearchCalls = new SingleFlight<>();
+    private final SingleFlight<String, String> directionsCalls = new SingleFlight<>();
+
+    @PostConstruct
+    public void init() {
+        mapsGuard = new DependencyGuard("Google Maps", maxConcurrent, acquireTimeoutMs, failureThreshold, openSeconds * 1000L);
     }
 
     public String findPlaceFromText(FindPlaceRequest request) {
-        String url = BASE_URL + "/place/findplacefromtext/json?input=" +
-                     request.getInput() +
-                     "&inputtype=textquery&fields=geometry,name&key=" +
-                     apiKey;
-        System.out.println("GoogleMapsApiService: Calling Find Place from Text API: " + url);
-        return restTemplate.getForObject(url, String.class);
+        String input = request.getInput() == null ? "" : request.getInput().trim();
+        String key = GeocodeCacheService.normalize(input);
+        return findPlaceCalls.execute(key == null ? "" : key, () -> {
+            String url = UriComponentsBuilder.fromHttpUrl(BASE_URL + "/place/findplacefromtext/json")
+                    .queryParam("input", input)
+                    .queryParam("inputtype", "textquery")
+                    .queryParam("fields", "geometry,name")
+                    .queryParam("key", apiKey)
+                    .toUriString();
+            System.out.println("GoogleMapsApiService: Calling Find Place from Text API for input: " + input);
+            return guarded(() -> restTemplate.getForObject(url, String.class));
+        });
     }
 
     public String nearbySearch(NearbySearchRequest request) {
-        String location = request.getLatitude() + "," + request.getLongitude();
-        String url = BASE_URL + "/place/nearbysearch/json?location=" +
-                     location +
-                     "&radius=" +
-                     (request.getRadius() > 0 ? request.getRadius() : 50000) +
-                     "&keyword=" +
-                     request.getKeyword() +
-                     "&key=" +
-                     apiKey;
-        System.out.println("GoogleMapsApiService: Calling Nearby Search API: " + url);
-        return restTemplate.getForObject(url, String.class);
+        int radius = request.getRadius() > 0 ? request.getRadius() : 5000;
+        String keyword = request.getKeyword() == null ? "" : request.getKeyword().trim();
+        // ~1 m precision; nearby-search results do not change below that
+        String location = String.format(Locale.ROOT, "%.5f,%.5f", request.getLatitude(), request.getLongitude());
+        String key = location + "|" + radius + "|" + keyword.toLowerCase(Locale.ROOT);
+        return nearbySearchCalls.execute(key, () -> {
+            String url = UriComponentsBuilder.fromHttpUrl(BASE_URL + "/place/nearbysearch/json")
+                    .queryParam("location", location)
+                    .queryParam("radius", radius)
+                    .queryParam("keyword", keyword)
+                    .queryParam("key", apiKey)
+                    .toUriString();
+            System.out.println("GoogleMapsApiService: Calling Nearby Search API at " + location + " (radius " + radius + ")");
+            return guarded(() -> restTemplate.getForObject(url, String.class));
+        });
     }
 
     public String getDirections(DirectionsRequest request) {
-        String url = BASE_URL + "/directions/json?origin=" +
-                     request.getOrigin() +
-                     "&destination=" +
-                     request.getDestination() +
-                     "&mode=driving&key=" +
-                     apiKey;
-        System.out.println("GoogleMapsApiService: Calling Directions API: " + url);
-        return restTemplate.getForObject(url, String.class);
+        String origin = request.getOrigin() == null ? "" : request.getOrigin().trim();
+        String destination = request.getDestination() == null ? "" : request.getDestination().trim();
+        String key = origin.toLowerCase(Locale.ROOT) + "|" + destination.toLowerCase(Locale.ROOT);
+        return directionsCalls.execute(key, () -> {
+            String url = UriComponentsBuilder.fromHttpUrl(BASE_URL + "/directions/json")
+                    .queryParam("origin", origin)
+                    .queryParam("destination", destination)
+                    .queryParam("mode", "driving")
+                    .queryParam("key", apiKey)
+                    .toUriString();
+            System.out.println("GoogleMapsApiService: Calling Directions API.");
+            return guarded(() -> restTemplate.getForObject(url, String.class));
+        });
+    }
+
+    public String getPlacePhotoUrl(String photoReference, int maxWidth) {
+        return UriComponentsBuilder.fromHttpUrl(BASE_URL + "/place/photo")
+                .queryParam("maxwidth", maxWidth)
+                .queryParam("photoreference", photoReference)
+                .queryParam("key", apiKey)
+                .toUriString();
     }
 
     public byte[] getPlacePhoto(String photoReference, int maxWidth) {
-        String url = BASE_URL + "/place/photo?maxwidth=" + maxWidth +
-                     "&photoreference=" + photoReference +
-                     "&key=" + apiKey;
         System.out.println("GoogleMapsApiService: Calling Place Photo API.");
-        return restTemplate.getForObject(url, byte[].class);
+        String url = getPlacePhotoUrl(photoReference, maxWidth);
+        return mapsGuard.call(() -> restTemplate.getForObject(url, byte[].class), () -> {
+            throw new IllegalStateException("Google Maps API is temporarily unavailable");
+        });
     }
-}
 
+    private String guarded(Supplier<String> call) {
+        return mapsGuard.call(call, () -> {
+            throw new IllegalStateException("Google Maps API is temporarily unavailable");
+        });
+    }
+
+    /**
+     * False while the Maps circuit is open; callers should use their degraded path.
+     */
+    public boolean isAvailable() {
+        return mapsGuard.isAvailable();
+    }
+
+    public Map<String, Object> getGuardStats() {
+        return mapsGuard.getStats();
+    }
+
+    /**
+     * Upstream calls made vs. calls answered by joining an identical in-flight request.
+     */
+    public Map<String, Object> getCoalescingStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("findPlace", coalescingStats(findPlaceCalls));
+        stats.put("nearbySearch", coalescingStats(nearbySearchCalls));
+        stats.put("directions", coalescingStats(directionsCalls));
+        return stats;
+    }
+
+    private static Map<String, Object> coalescingStats(SingleFlight<String, String> calls) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("upstreamCalls", calls.getExecutions());
+        stats.put("callsSaved", calls.getShared());
+        stats.put("inFlight", calls.getInFlight());
+        return stats;
+    }
+}
@@ -0,0 +1,218 @@
+package com.ewaste.ewaste_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reference counts for images in the content-addressed store.
+ *
+ * Identical uploads already share one file; the `image_blobs` table records how many
+ * rows of pickup_requests, pickup_items and item_images point at each hash. Counts are
+ * maintained by ImageReferenceListener on insert/delete and periodically recomputed from
+ * those tables, which also covers rows written with plain SQL (e.g. the legacy image
+ * migration). A sweeper deletes images whose count has stayed at zero for the grace
+ * period, so an upload stored just before its row is committed is never reclaimed.
+ * User history tables normally mirror the image of their pickup_requests row and are
+ * not counted; images that only a history row points at are pinned instead.
+ */
+@Service
+public class ImageBlobService {
+
+    private static final String REFERENCES =
+        "SELECT `image_hash`, `image_size`, `image_mime_type` FROM `pickup_requests` WHERE `image_hash` IS NOT NULL " +
+        "UNION ALL SELECT `image_hash`, `image_size`, `image_mime_type` FROM `pickup_items` WHERE `image_hash` IS NOT NULL " +
+        "UNION ALL SELECT `image_hash`, `image_size`, `image_mime_type` FROM `item_images` WHERE `image_hash` IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Value("${image.sweeper.enabled:true}")
+    private boolean sweeperEnabled;
+
+    @Value("${image.sweeper.interval-minutes:60}")
+    private long intervalMinutes;
+
+    /** How long an unreferenced image is kept before it is deleted. */
+    @Value("${image.sweeper.grace-minutes:120}")
+    private long graceMinutes;
+
+    @Value("${image.sweeper.batch-size:500}")
+    private int batchSize;
+
+    private ScheduledExecutorService sweeper;
+
+    private final AtomicLong sweeps = new AtomicLong();
+    private final AtomicLong reclaimedImages = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        try {
+            jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS `image_blobs` (" +
+                "`hash` CHAR(64) NOT NULL PRIMARY KEY, " +
+                "`size` BIGINT, " +
+                "`mime_type` VARCHAR(100), " +
+                "`ref_count` INT NOT NULL DEFAULT 0, " +
+                "`pinned` TINYINT(1) NOT NULL DEFAULT 0, " +
+                "`created_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "`updated_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                "KEY `idx_image_blobs_unreferenced` (`ref_count`, `updated_at`))"
+            );
+            Integer pinnedColumn = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = 'image_blobs' AND column_name = 'pinned'",
+                Integer.class);
+            if (pinnedColumn != null && pinnedColumn == 0) {
+                jdbcTemplate.execute("ALTER TABLE `image_blobs` ADD COLUMN `pinned` TINYINT(1) NOT NULL DEFAULT 0");
+            }
+        } catch (Exception e) {
+            System.err.println("Could not create image_blobs table: " + e.getMessage());
+        }
+        // Every store() call registers the hash (or refreshes its timestamp, which restarts
+        // the grace period of an orphan that has just been uploaded again)
+        imageStoreService.addStoreListener(stored -> register(stored.hash(), stored.size(), stored.mimeType()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!sweeperEnabled) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "image-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, 1, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Counts one more row referencing the image.
+     */
+    public void retain(String hash, Long size, String mimeType) {
+        jdbcTemplate.update(
+            "INSERT INTO `image_blobs` (`hash`, `size`, `mime_type`, `ref_count`) VALUES (?, ?, ?, 1) " +
+            "ON DUPLICATE KEY UPDATE `ref_count` = `ref_count` + 1",
+            hash, size, mimeType);
+    }
+
+    /**
+     * Counts one row fewer referencing the image. The image is reclaimed by the sweeper
+     * once the count has been zero for the grace period.
+     */
+    public void release(String hash) {
+        jdbcTemplate.update(
+            "UPDATE `image_blobs` SET `ref_count` = GREATEST(`ref_count` - 1, 0) WHERE `hash` = ?", hash);
+    }
+
+    /**
+     * Exempts an image from sweeping, for references the counts do not cover.
+     */
+    public void pin(String hash) {
+        jdbcTemplate.update("UPDATE `image_blobs` SET `pinned` = 1 WHERE `hash` = ?", hash);
+    }
+
+    private void register(String hash, long size, String mimeType) {
+        jdbcTemplate.update(
+            "INSERT INTO `image_blobs` (`hash`, `size`, `mime_type`, `ref_count`) VALUES (?, ?, ?, 0) " +
+            "ON DUPLICATE KEY UPDATE `updated_at` = CURRENT_TIMESTAMP",
+            hash, size, mimeType);
+    }
+
+    /**
+     * Recomputes every count from the referencing tables and adds rows for images stored
+     * before this table existed.
+     */
+    public void reconcile() {
+        jdbcTemplate.update(
+            "INSERT IGNORE INTO `image_blobs` (`hash`, `size`, `mime_type`, `ref_count`) " +
+            "SELECT r.`image_hash`, MAX(r.`image_size`), MAX(r.`image_mime_type`), 0 FROM (" + REFERENCES + ") r GROUP BY r.`image_hash`");
+        // updated_at only moves when ref_count actually changes, so it marks when an image became unreferenced
+        jdbcTemplate.update(
+            "UPDATE `image_blobs` b LEFT JOIN (SELECT r.`image_hash`, COUNT(*) AS refs FROM (" + REFERENCES + ") r GROUP BY r.`image_hash`) c " +
+            "ON c.`image_hash` = b.`hash` SET b.`ref_count` = COALESCE(c.refs, 0)");
+    }
+
+    /**
+     * Reconciles the counts, then deletes images that have been unreferenced for longer
+     * than the grace period.
+     */
+    public void sweep() {
+        try {
+            reconcile();
+            int reclaimed = 0;
+            List<Map<String, Object>> candidates;
+            do {
+                candidates = jdbcTemplate.queryForList(
+                    "SELECT `hash`, `size` FROM `image_blobs` WHERE `ref_count` = 0 AND `pinned` = 0 AND `updated_at` < NOW() - INTERVAL ? MINUTE LIMIT ?",
+                    graceMinutes, batchSize);
+                for (Map<String, Object> candidate : candidates) {
+                    String hash = (String) candidate.get("hash");
+                    // Re-check in the DELETE so a reference added since the SELECT keeps the image;
+                    // row and file go under the store's lock for the hash, so a concurrent
+                    // store() of the same content either refreshes the row first or writes
+                    // the file again afterwards
+                    boolean deleted = imageStoreService.deleteIf(hash, () -> jdbcTemplate.update(
+                        "DELETE FROM `image_blobs` WHERE `hash` = ? AND `ref_count` = 0 AND `pinned` = 0 AND `updated_at` < NOW() - INTERVAL ? MINUTE",
+                        hash, graceMinutes) == 1);
+                    if (deleted) {
+                        reclaimed++;
+                        reclaimedImages.incrementAndGet();
+                        Object size = candidate.get("size");
+                        if (size instanceof Number) {
+                            reclaimedBytes.addAndGet(((Number) size).longValue());
+                        }
+                    }
+                }
+            } while (candidates.size() == batchSize);
+            sweeps.incrementAndGet();
+            if (reclaimed > 0) {
+                System.out.println("Image sweeper reclaimed " + reclaimed + " unreferenced images");
+            }
+        } catch (Exception e) {
+            System.err.println("Error sweeping unreferenced images: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        try {
+            Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS images, COALESCE(SUM(`size`), 0) AS storedBytes, " +
+                "COALESCE(SUM(`size` * GREATEST(`ref_count` - 1, 0)), 0) AS dedupSavedBytes, " +
+                "COALESCE(SUM(`ref_count` = 0 AND `pinned` = 0), 0) AS unreferenced FROM `image_blobs`");
+            stats.putAll(totals);
+        } catch (Exception e) {
+            stats.put("error", e.getMessage());
+        }
+        stats.put("sweeps", sweeps.get());
+        stats.put("reclaimedImages", reclaimedImages.get());
+        stats.put("reclaimedBytes", reclaimedBytes.get());
+        stats.put("graceMinutes", graceMinutes);
+        return stats;
+    }
+}
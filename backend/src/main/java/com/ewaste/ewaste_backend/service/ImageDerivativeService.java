@@ -0,0 +1,273 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.util.ImageDecoding;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders smaller JPEG variants of stored images for list views.
+ *
+ * Every newly stored image is queued on a small bounded pool that writes a thumbnail and
+ * a medium-size copy beside the original ({hash}.thumb.jpg, {hash}.medium.jpg). Requests
+ * for a variant that is not there yet (queue overflow, images stored before this existed)
+ * render it on the same pool and wait briefly; if that fails the original is served.
+ */
+@Service
+public class ImageDerivativeService {
+
+    public enum Variant {
+        THUMB("thumb.jpg", 240, 0.75f),
+        MEDIUM("medium.jpg", 1024, 0.82f),
+        ORIGINAL(null, 0, 0f);
+
+        private final String suffix;
+        private final int maxDimension;
+        private final float quality;
+
+        Variant(String suffix, int maxDimension, float quality) {
+            this.suffix = suffix;
+            this.maxDimension = maxDimension;
+            this.quality = quality;
+        }
+
+        /**
+         * Parses the ?size= request parameter; null or blank means the original.
+         * @throws IllegalArgumentException for unknown sizes
+         */
+        public static Variant fromParam(String size) {
+            if (size == null || size.isBlank()) {
+                return ORIGINAL;
+            }
+            try {
+                return valueOf(size.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown image size '" + size + "', expected thumb, medium or original");
+            }
+        }
+    }
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Value("${image.derivatives.threads:2}")
+    private int threads;
+
+    @Value("${image.derivatives.queue-capacity:500}")
+    private int queueCapacity;
+
+    /** How long a request waits for an on-demand render before falling back to the original. */
+    @Value("${image.derivatives.on-demand-wait-ms:3000}")
+    private long onDemandWaitMs;
+
+    private ThreadPoolExecutor pool;
+
+    /** Renders in progress, so concurrent requests for one image share a single render. */
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    /** Hashes ImageIO cannot decode (e.g. WebP); those are always served as originals. */
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong servedFallback = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread thread = new Thread(r, "image-derivatives-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        imageStoreService.addStoreListener(stored -> schedule(stored.hash()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Queues rendering of all variants of a stored image unless they already exist.
+     * Dropped (and later rendered on demand) if the queue is full.
+     */
+    public void schedule(String hash) {
+        if (!unsupported.contains(hash) && !Files.isRegularFile(imageStoreService.derivativePath(hash, Variant.MEDIUM.suffix))) {
+            render(hash);
+        }
+    }
+
+    /**
+     * File to serve for the requested variant: the derivative if it exists or can be
+     * rendered in time, otherwise the original.
+     * @return null if the image itself is not stored
+     */
+    public Path resolve(String hash, Variant variant) {
+        Path original = imageStoreService.resolve(hash);
+        if (original == null || variant == Variant.ORIGINAL || unsupported.contains(hash)) {
+            return original;
+        }
+        Path derivative = imageStoreService.derivativePath(hash, variant.suffix);
+        if (Files.isRegularFile(derivative)) {
+            return derivative;
+        }
+        try {
+            render(hash).get(onDemandWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Timed out or failed; serve the original below
+        }
+        if (Files.isRegularFile(derivative)) {
+            return derivative;
+        }
+        servedFallback.incrementAndGet();
+        return original;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("queueDepth", pool.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("inFlight", inFlight.size());
+        stats.put("rendered", rendered.get());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("unsupportedImages", unsupported.size());
+        stats.put("servedOriginalFallback", servedFallback.get());
+        return stats;
+    }
+
+    private CompletableFuture<Void> render(String hash) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(hash, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    renderVariants(hash);
+                    future.complete(null);
+                } catch (Throwable t) {
+                    failed.incrementAndGet();
+                    System.err.println("Could not render variants of image " + hash + ": " + t.getMessage());
+                    future.completeExceptionally(t);
+                } finally {
+                    inFlight.remove(hash, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            inFlight.remove(hash, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void renderVariants(String hash) throws IOException {
+        Path original = imageStoreService.resolve(hash);
+        if (original == null) {
+            return;
+        }
+        for (Variant variant : Variant.values()) {
+            if (variant == Variant.ORIGINAL) {
+                continue;
+            }
+            Path target = imageStoreService.derivativePath(hash, variant.suffix);
+            if (Files.isRegularFile(target)) {
+                continue;
+            }
+            BufferedImage source = ImageDecoding.decodeSubsampled(original, variant.maxDimension);
+            if (source == null) {
+                unsupported.add(hash);
+                return;
+            }
+            writeJpeg(scale(source, variant.maxDimension), variant.quality, target);
+            rendered.incrementAndGet();
+        }
+    }
+
+    /**
+     * Fits the image into maxDimension x maxDimension (never enlarging), halving in steps
+     * for quality and flattening transparency onto white for JPEG.
+     */
+    private static BufferedImage scale(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        do {
+            int stepWidth = Math.max(targetWidth, current.getWidth() / 2);
+            int stepHeight = Math.max(targetHeight, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(stepWidth, stepHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, stepWidth, stepHeight);
+                g.drawImage(current, 0, 0, stepWidth, stepHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (current.getWidth() > targetWidth || current.getHeight() > targetHeight);
+        return current;
+    }
+
+    private static void writeJpeg(BufferedImage image, float quality, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
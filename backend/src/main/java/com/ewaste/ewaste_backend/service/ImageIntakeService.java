@@ -0,0 +1,178 @@
+package com.ewaste.ewaste_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-image work of a multi-photo upload, run concurrently so a request waits for its
+ * slowest image rather than the sum of all of them.
+ *
+ * receiveAll() streams, hashes and pre-computes the perceptual hash of every image in
+ * parallel; storeAll() moves them into the image store (which also queues thumbnails) in
+ * parallel. Both are all-or-nothing: when one image fails, the tasks still running are
+ * cancelled, every handle received (even by a task finishing after the cancel) is
+ * closed, and the first failure is rethrown.
+ * The pool is bounded; when it is saturated the request thread does the work itself.
+ */
+@Service
+public class ImageIntakeService {
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Autowired
+    private LocalClassifierService localClassifierService;
+
+    @Value("${image.intake.threads:8}")
+    private int threads;
+
+    @Value("${image.intake.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong images = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread thread = new Thread(r, "image-intake-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Receives all uploads concurrently. The caller must close the returned handles.
+     * @throws IllegalArgumentException if an upload exceeds the size limit
+     */
+    public List<UploadedImage> receiveAll(MultipartFile[] files) throws IOException {
+        // Every handle is recorded as soon as it exists, so a failed batch also closes the
+        // handles of tasks that finish after being cancelled. Both sides drain the queue
+        // after their own write (add, failed flag), so each handle is closed exactly once.
+        Queue<UploadedImage> created = new ConcurrentLinkedQueue<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Callable<UploadedImage>> tasks = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            tasks.add(() -> {
+                UploadedImage upload = imageStoreService.receive(file);
+                created.add(upload);
+                if (failed.get()) {
+                    closeAll(created);
+                    return upload;
+                }
+                localClassifierService.prepare(upload);
+                return upload;
+            });
+        }
+        return runAll(tasks, () -> {
+            failed.set(true);
+            closeAll(created);
+        });
+    }
+
+    /**
+     * Stores all received images concurrently.
+     * @return The stored images, in input order
+     */
+    public List<ImageStoreService.StoredImage> storeAll(List<UploadedImage> uploads) throws IOException {
+        List<Callable<ImageStoreService.StoredImage>> tasks = new ArrayList<>(uploads.size());
+        for (UploadedImage upload : uploads) {
+            tasks.add(() -> imageStoreService.store(upload));
+        }
+        // Images stored before a failure stay unreferenced and are reclaimed by the sweeper
+        return runAll(tasks, () -> { });
+    }
+
+    /**
+     * Runs the tasks concurrently and returns their results in order. On the first
+     * failure the remaining tasks are cancelled and onFailure releases what the tasks
+     * created, including tasks that are still finishing.
+     */
+    private <T> List<T> runAll(List<Callable<T>> tasks, Runnable onFailure) throws IOException {
+        batches.incrementAndGet();
+        images.addAndGet(tasks.size());
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+
+        List<T> results = new ArrayList<>(tasks.size());
+        Throwable failure = null;
+        for (Future<T> future : futures) {
+            if (failure != null) {
+                future.cancel(true);
+                continue;
+            }
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                failure = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            }
+        }
+        if (failure == null) {
+            return results;
+        }
+
+        failedBatches.incrementAndGet();
+        onFailure.run();
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw new IOException("Image processing failed", failure);
+    }
+
+    private static void closeAll(Queue<UploadedImage> handles) {
+        UploadedImage upload;
+        while ((upload = handles.poll()) != null) {
+            upload.close();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("batches", batches.get());
+        stats.put("images", images.get());
+        stats.put("failedBatches", failedBatches.get());
+        return stats;
+    }
+}
@@ -0,0 +1,139 @@
+package com.ewaste.ewaste_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-time move of legacy LONGBLOB image columns into the image store.
+ *
+ * Rows that still carry `image_data` bytes are processed in id order, a batch at a time:
+ * the bytes are written to the store and the row is updated to the hash/size/MIME
+ * reference with `image_data` cleared. Re-running is harmless, so the job simply runs on
+ * every startup until no legacy bytes are left.
+ */
+@Service
+public class ImageMigrationService {
+
+    private static final String[] IMAGE_TABLES = {"pickup_requests", "pickup_items", "item_images"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Value("${image.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.migration.batch-size:25}")
+    private int batchSize;
+
+    private record LegacyImage(long id, byte[] bytes) {
+    }
+
+    /**
+     * Adds the image reference columns to tables created before the image store existed.
+     */
+    @PostConstruct
+    public void ensureImageColumns() {
+        for (String table : IMAGE_TABLES) {
+            addColumnIfMissing(table, "image_hash", "VARCHAR(64)");
+            addColumnIfMissing(table, "image_size", "BIGINT");
+            addColumnIfMissing(table, "image_mime_type", "VARCHAR(100)");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImages() {
+        if (!enabled) {
+            return;
+        }
+        Thread migration = new Thread(() -> {
+            for (String table : IMAGE_TABLES) {
+                try {
+                    if (columnExists(table, "image_data")) {
+                        migrateTable(table);
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error migrating images of " + table + ": " + e.getMessage());
+                }
+            }
+        }, "image-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    private void migrateTable(String table) {
+        boolean hasImageUrl = "pickup_items".equals(table);
+        String update = "UPDATE `" + table + "` SET `image_hash` = ?, `image_size` = ?, `image_mime_type` = ?, " +
+                        (hasImageUrl ? "`image_url` = ?, " : "") + "`image_data` = NULL WHERE `id` = ?";
+        long lastId = 0;
+        int migrated = 0;
+        while (true) {
+            List<LegacyImage> batch = jdbcTemplate.query(
+                "SELECT `id`, `image_data` FROM `" + table + "` WHERE `id` > ? AND `image_data` IS NOT NULL ORDER BY `id` LIMIT ?",
+                (rs, rowNum) -> new LegacyImage(rs.getLong(1), rs.getBytes(2)),
+                lastId, batchSize
+            );
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> updates = new ArrayList<>();
+            for (LegacyImage image : batch) {
+                lastId = image.id();
+                if (image.bytes() == null || image.bytes().length == 0) {
+                    continue;
+                }
+                try {
+                    ImageStoreService.StoredImage stored = imageStoreService.store(image.bytes(), null);
+                    updates.add(hasImageUrl
+                        ? new Object[]{stored.hash(), stored.size(), stored.mimeType(), stored.url(), image.id()}
+                        : new Object[]{stored.hash(), stored.size(), stored.mimeType(), image.id()});
+                } catch (Exception e) {
+                    System.err.println("Could not move image of " + table + " row " + image.id() + ": " + e.getMessage());
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(update, updates);
+                migrated += updates.size();
+            }
+        }
+        if (migrated > 0) {
+            System.out.println("Moved " + migrated + " legacy images from " + table + " into the image store");
+        }
+    }
+
+    private void addColumnIfMissing(String table, String column, String definition) {
+        try {
+            if (tableExists(table) && !columnExists(table, column)) {
+                jdbcTemplate.execute("ALTER TABLE `" + table + "` ADD COLUMN `" + column + "` " + definition);
+                System.out.println("Added column " + table + "." + column);
+            }
+        } catch (Exception e) {
+            System.err.println("Could not add column " + table + "." + column + ": " + e.getMessage());
+        }
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+            Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?",
+            Integer.class, table, column);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,380 @@
+package com.ewaste.ewaste_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for uploaded images.
+ *
+ * Each image is written once to {root}/ab/cd/{sha256}, where ab and cd are the first two
+ * byte pairs of the hash, so identical uploads share one file and a stored file never
+ * changes. Database rows keep only the hash, size and MIME type; bytes are served by
+ * ImageController at /api/images/{hash}.
+ *
+ * Uploads are streamed: receive() copies the multipart stream to a temp file through a
+ * pooled direct buffer, hashing and size-checking in the same pass, and returns an
+ * UploadedImage handle that is later moved into place by store().
+ *
+ * Listeners registered with addStoreListener() are told about every store() call,
+ * including uploads whose content was already stored (ImageBlobService counts references
+ * to them, ImageDerivativeService pre-renders smaller variants).
+ */
+@Service
+public class ImageStoreService {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+
+    public static final String URL_PREFIX = "/api/images/";
+
+    @Value("${image.store.root:uploads/images}")
+    private String rootDirectory;
+
+    @Value("${image.upload.max-bytes:15728640}")
+    private long maxUploadBytes;
+
+    @Value("${image.upload.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    /** Direct buffers shared by all concurrent uploads; bounds off-heap usage. */
+    @Value("${image.upload.buffers:16}")
+    private int bufferCount;
+
+    private Path root;
+    private Path tempDirectory;
+    private ArrayBlockingQueue<ByteBuffer> bufferPool;
+    private final List<Consumer<StoredImage>> storeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Striped per-hash locks: store() and deleteIf() of the same content never interleave,
+     * so the sweeper cannot remove a file that a concurrent store() has just registered.
+     */
+    private final ReentrantLock[] hashLocks = new ReentrantLock[64];
+    {
+        for (int i = 0; i < hashLocks.length; i++) {
+            hashLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /** Reference to a stored image as kept on database rows. */
+    public record StoredImage(String hash, long size, String mimeType) {
+        public String url() {
+            return URL_PREFIX + hash;
+        }
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(rootDirectory).toAbsolutePath().normalize();
+        // Temp files live under the root so the final move is a same-filesystem rename
+        tempDirectory = root.resolve("tmp");
+        Files.createDirectories(tempDirectory);
+        bufferPool = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            bufferPool.offer(ByteBuffer.allocateDirect(bufferBytes));
+        }
+        System.out.println("Image store at " + root);
+    }
+
+    /**
+     * Streams an upload to a temp file, computing its SHA-256 and enforcing the size
+     * limit on the way. The caller must close the returned handle.
+     * @throws IllegalArgumentException if the upload exceeds image.upload.max-bytes
+     */
+    public UploadedImage receive(MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile(tempDirectory, "upload-", ".part");
+        ByteBuffer buffer = acquireBuffer();
+        try (ReadableByteChannel in = Channels.newChannel(file.getInputStream());
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            MessageDigest digest = sha256Digest();
+            byte[] head = new byte[12];
+            int headLength = 0;
+            long size = 0;
+            while (true) {
+                buffer.clear();
+                int read = in.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                size += read;
+                if (size > maxUploadBytes) {
+                    throw new IllegalArgumentException("Image exceeds the upload limit of " + (maxUploadBytes / (1024 * 1024)) + " MB");
+                }
+                buffer.flip();
+                if (headLength < head.length) {
+                    int n = Math.min(head.length - headLength, buffer.remaining());
+                    buffer.get(buffer.position(), head, headLength, n);
+                    headLength += n;
+                }
+                digest.update(buffer);
+                buffer.rewind();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            String mimeType = detectMimeType(Arrays.copyOf(head, headLength), file.getContentType());
+            return new UploadedImage(temp, HexFormat.of().formatHex(digest.digest()), size, mimeType, file.getOriginalFilename());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * Moves a received upload into the store (or drops it if identical content is
+     * already stored). The handle stays readable and now points at the stored file.
+     */
+    public StoredImage store(UploadedImage upload) throws IOException {
+        ReentrantLock lock = lockFor(upload.getHash());
+        lock.lock();
+        try {
+            return storeLocked(upload);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private StoredImage storeLocked(UploadedImage upload) throws IOException {
+        Path target = pathFor(upload.getHash());
+        if (Files.exists(target)) {
+            Files.deleteIfExists(upload.getPath());
+        } else {
+            Files.createDirectories(target.getParent());
+            // Uploads are not synced while received (most analyze-only ones are deleted
+            // right away); only what enters the store is made durable
+            try (FileChannel channel = FileChannel.open(upload.getPath(), StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(upload.getPath(), target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        upload.markStored(target);
+        return notifyStored(new StoredImage(upload.getHash(), upload.getSize(), upload.getMimeType()));
+    }
+
+    public StoredImage store(MultipartFile file) throws IOException {
+        try (UploadedImage upload = receive(file)) {
+            return store(upload);
+        }
+    }
+
+    /**
+     * Registers a callback invoked for each image passed to store(), whether or not
+     * identical content was already stored.
+     */
+    public void addStoreListener(Consumer<StoredImage> listener) {
+        storeListeners.add(listener);
+    }
+
+    /**
+     * Writes image bytes to the store unless an identical image is already there.
+     * @param bytes Image content
+     * @param declaredMimeType Content type reported by the client, used if sniffing fails
+     */
+    public StoredImage store(byte[] bytes, String declaredMimeType) throws IOException {
+        String hash = sha256(bytes);
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            return storeLocked(hash, bytes, declaredMimeType);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private StoredImage storeLocked(String hash, byte[] bytes, String declaredMimeType) throws IOException {
+        Path target = pathFor(hash);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            // Write to a temp file in the same directory, then rename into place so
+            // readers never see a partially written image
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return notifyStored(new StoredImage(hash, bytes.length, detectMimeType(bytes, declaredMimeType)));
+    }
+
+    /**
+     * Location of a stored image, or null if the hash is malformed or not stored.
+     */
+    public Path resolve(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return null;
+        }
+        Path path = pathFor(hash);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * Sniffs the MIME type from the first bytes of a stored image.
+     */
+    public String detectMimeType(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(12);
+            while (head.hasRemaining() && channel.read(head) > 0) {
+                // keep reading until the header is full or the file ends
+            }
+            byte[] bytes = new byte[head.position()];
+            head.flip();
+            head.get(bytes);
+            return detectMimeType(bytes, null);
+        } catch (IOException e) {
+            return "application/octet-stream";
+        }
+    }
+
+    /**
+     * Location of a file derived from a stored image (e.g. "thumb.jpg"), kept beside the
+     * original. The file may not exist yet.
+     */
+    public Path derivativePath(String hash, String suffix) {
+        return pathFor(hash).resolveSibling(hash + "." + suffix);
+    }
+
+    /**
+     * Deletes a stored image and its derivatives if the condition still holds once no
+     * store() of the same content can run. The condition typically removes the image's
+     * bookkeeping row and reports whether it did.
+     * @return Whether the image was deleted
+     */
+    public boolean deleteIf(String hash, BooleanSupplier condition) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            if (!condition.getAsBoolean()) {
+                return false;
+            }
+            delete(hash);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return hashLocks[Math.floorMod(hash.hashCode(), hashLocks.length)];
+    }
+
+    /**
+     * Deletes a stored image and all files derived from it. Only called by deleteIf,
+     * under the hash's lock, so a concurrent store() cannot lose its file.
+     */
+    private void delete(String hash) throws IOException {
+        Path original = resolve(hash);
+        if (original == null) {
+            return;
+        }
+        try (DirectoryStream<Path> derived = Files.newDirectoryStream(original.getParent(), hash + ".*")) {
+            for (Path path : derived) {
+                Files.deleteIfExists(path);
+            }
+        }
+        Files.deleteIfExists(original);
+    }
+
+    private StoredImage notifyStored(StoredImage stored) {
+        for (Consumer<StoredImage> listener : storeListeners) {
+            try {
+                listener.accept(stored);
+            } catch (RuntimeException e) {
+                System.err.println("Image store listener failed for " + stored.hash() + ": " + e.getMessage());
+            }
+        }
+        return stored;
+    }
+
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private ByteBuffer acquireBuffer() {
+        try {
+            ByteBuffer buffer = bufferPool.poll(2, TimeUnit.SECONDS);
+            if (buffer != null) {
+                return buffer;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Pool exhausted: fall back to a short-lived heap buffer rather than failing the upload
+        return ByteBuffer.allocate(bufferBytes);
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        if (buffer.isDirect()) {
+            bufferPool.offer(buffer);
+        }
+    }
+
+    static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256Digest().digest(bytes));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String detectMimeType(byte[] head, String declaredMimeType) {
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) return "image/jpeg";
+        if (startsWith(head, 0x89, 'P', 'N', 'G')) return "image/png";
+        if (startsWith(head, 'G', 'I', 'F', '8')) return "image/gif";
+        if (startsWith(head, 'R', 'I', 'F', 'F') && head.length >= 12
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') return "image/webp";
+        if (startsWith(head, 'B', 'M')) return "image/bmp";
+        if (declaredMimeType != null && declaredMimeType.startsWith("image/")) return declaredMimeType;
+        return "application/octet-stream";
+    }
+
+    private static boolean startsWith(byte[] bytes, int... prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.util.KeywordMatcher;
+import com.ewaste.ewaste_backend.util.ReloadableJsonFile;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Maps Vision labels to item categories and file names to brands using keyword tables.
+ *
+ * The tables (analysis/keywords.json on the classpath, or the file named by
+ * analysis.keywords.file) are compiled once into KeywordMatcher automatons, so a label is
+ * matched against every keyword in one pass. Categories and brands listed first win when
+ * several keywords match. When an external file is configured it is re-read whenever its
+ * modification time changes; a file that fails to parse leaves the current tables active.
+ */
+@Service
+public class KeywordClassifierService {
+
+    private static final String BUNDLED_TABLES = "analysis/keywords.json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${analysis.keywords.file:}")
+    private String keywordsFile;
+
+    @Value("${analysis.keywords.reload-seconds:30}")
+    private long reloadSeconds;
+
+    private ReloadableJsonFile file;
+    private volatile Tables tables;
+    private ScheduledExecutorService watcher;
+
+    /** One compiled, immutable generation of the keyword tables. */
+    private record Tables(KeywordMatcher<String> categories, KeywordMatcher<String> brands,
+                          String defaultCategory, String source, long loadedAt) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        file = new ReloadableJsonFile(objectMapper, BUNDLED_TABLES, keywordsFile);
+        tables = load();
+        watcher = file.watch("keyword-tables-watcher", reloadSeconds, this::reload);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Category of a Vision label, or the default category if no keyword matches.
+     */
+    public String mapToCategory(String label) {
+        Tables current = tables;
+        String category = current.categories().firstMatch(label);
+        return category != null ? category : current.defaultCategory();
+    }
+
+    /**
+     * Whether a Vision label maps to a category other than the default one.
+     */
+    public boolean matchesCategory(String label) {
+        return tables.categories().firstMatch(label) != null;
+    }
+
+    /**
+     * Brand named in a file name, or null.
+     */
+    public String detectBrand(String filename) {
+        return tables.brands().firstMatch(filename);
+    }
+
+    public String getDefaultCategory() {
+        return tables.defaultCategory();
+    }
+
+    /**
+     * Re-reads and recompiles the tables.
+     * @throws IOException if the tables cannot be read; the current tables stay active
+     * @throws IllegalArgumentException if the tables are malformed
+     */
+    public synchronized Map<String, Object> reload() throws IOException {
+        tables = load();
+        System.out.println("Reloaded keyword tables from " + tables.source());
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        Tables current = tables;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("source", current.source());
+        status.put("loadedAt", current.loadedAt());
+        status.put("categoryKeywords", current.categories().keywordCount());
+        status.put("brandKeywords", current.brands().keywordCount());
+        status.put("defaultCategory", current.defaultCategory());
+        return status;
+    }
+
+    private Tables load() throws IOException {
+        JsonNode root = file.read();
+        return new Tables(compile(root.path("categories")), compile(root.path("brands")),
+                          root.path("defaultCategory").asText("Electronic Device (Generic)"), file.getSource(), System.currentTimeMillis());
+    }
+
+    /**
+     * Compiles a [{"name": ..., "keywords": [...]}, ...] table; earlier entries win.
+     */
+    private static KeywordMatcher<String> compile(JsonNode entries) {
+        if (!entries.isArray()) {
+            throw new IllegalArgumentException("Keyword table must be an array");
+        }
+        KeywordMatcher.Builder<String> builder = KeywordMatcher.builder();
+        for (JsonNode entry : entries) {
+            String name = entry.path("name").asText(null);
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Keyword table entry without a name");
+            }
+            for (JsonNode keyword : entry.path("keywords")) {
+                builder.add(keyword.asText(), name);
+            }
+        }
+        return builder.build();
+    }
+}
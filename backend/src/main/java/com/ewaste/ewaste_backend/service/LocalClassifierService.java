@@ -0,0 +1,330 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.model.ItemImage;
+import com.ewaste.ewaste_backend.model.PickupItem;
+import com.ewaste.ewaste_backend.util.BkTree;
+import com.ewaste.ewaste_backend.util.ImageDecoding;
+import com.ewaste.ewaste_backend.util.LruCache;
+import com.ewaste.ewaste_backend.util.PerceptualHash;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * First-stage image classifier that answers from photos of verified pickup items.
+ *
+ * Each verified item image is reduced to a 64-bit dHash and kept, with the item's waste
+ * type, in the `image_phashes` table and an in-memory BK-tree. A new photo whose hash is
+ * within max-distance bits of a known one (and not equally close to a different type)
+ * is classified locally without a Vision call. Weaker matches, up to fallback-distance
+ * bits, are only used when Vision cannot answer, so analysis keeps working offline.
+ *
+ * Only items whose analysis was a confident Vision answer are learned; learning from the
+ * index's own matches, degraded or low-confidence results would reinforce its guesses.
+ * The decision is stored with the item (`ai_learnable`), so the startup backfill applies
+ * the same rule as live learning.
+ */
+@Service
+public class LocalClassifierService {
+
+    /** Size the image is subsampled to before hashing; the hash only needs a 9x8 grid. */
+    private static final int HASH_DECODE_DIMENSION = 32;
+
+    /** Analyses below this confidence are flagged lowConfidence and never learned. */
+    public static final double MIN_LEARN_CONFIDENCE = 0.9;
+
+    /** The check of learn(PickupItem) in SQL, over `pickup_items` aliased as i. */
+    private static final String LEARNABLE_ITEM =
+        "(i.`ai_learnable` = 1 OR (i.`ai_learnable` IS NULL AND i.`ai_confidence` >= " + MIN_LEARN_CONFIDENCE + "))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Value("${analysis.local.enabled:true}")
+    private boolean enabled;
+
+    @Value("${analysis.local.max-distance:4}")
+    private int maxDistance;
+
+    @Value("${analysis.local.fallback-distance:10}")
+    private int fallbackDistance;
+
+    @Value("${analysis.local.backfill-batch:500}")
+    private int backfillBatch;
+
+    private final BkTree<String> index = new BkTree<>();
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    /** dHash by image SHA-256, so an upload analyzed and then learned is decoded once. */
+    private final LruCache<String, Long> hashCache = new LruCache<>(2000, 0);
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong strongMatches = new AtomicLong();
+    private final AtomicLong weakMatches = new AtomicLong();
+    private final AtomicLong learned = new AtomicLong();
+    private final AtomicLong hashFailures = new AtomicLong();
+
+    /**
+     * Nearest verified image: its waste type, Hamming distance and the derived confidence.
+     * A strong match may replace Vision; a weak one only stands in when Vision fails.
+     */
+    public record LocalMatch(String wasteType, int distance, double confidence, boolean strong) {
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            addLearnableColumnIfMissing();
+        } catch (Exception e) {
+            System.err.println("Could not add column pickup_items.ai_learnable: " + e.getMessage());
+        }
+        try {
+            jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS `image_phashes` (" +
+                "`image_hash` CHAR(64) NOT NULL PRIMARY KEY, " +
+                "`dhash` BIGINT NOT NULL, " +
+                "`waste_type` VARCHAR(255) NOT NULL, " +
+                "`created_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT `dhash`, `waste_type` FROM `image_phashes`");
+            indexLock.writeLock().lock();
+            try {
+                for (Map<String, Object> row : rows) {
+                    index.add(((Number) row.get("dhash")).longValue(), (String) row.get("waste_type"));
+                }
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            System.out.println("Loaded " + rows.size() + " perceptual hashes for local classification.");
+        } catch (Exception e) {
+            System.err.println("Could not load image_phashes table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Indexes verified item images from before the local classifier existed, in the
+     * background and in batches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        if (!enabled) {
+            return;
+        }
+        Thread backfill = new Thread(this::backfill, "phash-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * Looks up the nearest verified image.
+     * @return The match, or null if nothing is within fallback-distance, the nearest
+     *         types disagree, or the image cannot be decoded
+     */
+    public LocalMatch classify(UploadedImage upload) {
+        if (!enabled) {
+            return null;
+        }
+        Long hash = hashOf(upload.getHash(), upload.getPath());
+        if (hash == null) {
+            return null;
+        }
+        lookups.incrementAndGet();
+        List<BkTree.Match<String>> matches;
+        indexLock.readLock().lock();
+        try {
+            matches = index.search(hash, fallbackDistance);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        if (matches.isEmpty()) {
+            return null;
+        }
+        BkTree.Match<String> nearest = matches.get(0);
+        for (BkTree.Match<String> match : matches) {
+            if (match.distance() > nearest.distance()) {
+                break;
+            }
+            if (!match.value().equals(nearest.value())) {
+                // Equally close to two different types: let Vision decide
+                return null;
+            }
+        }
+        boolean strong = nearest.distance() <= maxDistance;
+        (strong ? strongMatches : weakMatches).incrementAndGet();
+        return new LocalMatch(nearest.value(), nearest.distance(), 1.0 - nearest.distance() / 64.0, strong);
+    }
+
+    /**
+     * Computes and caches the image's dHash ahead of classify(), so the decode can run on
+     * the thread that received the upload.
+     */
+    public void prepare(UploadedImage upload) {
+        if (enabled) {
+            hashOf(upload.getHash(), upload.getPath());
+        }
+    }
+
+    /**
+     * Whether an analysis result may be learned: it came from Vision (not from this index),
+     * Vision was reachable, and the result was not flagged lowConfidence.
+     */
+    public boolean isLearnable(Map<String, Object> analysis) {
+        Object confidence = analysis.get("confidence");
+        return !"local".equals(analysis.get("source"))
+            && !Boolean.TRUE.equals(analysis.get("degraded"))
+            && !Boolean.TRUE.equals(analysis.get("lowConfidence"))
+            && confidence instanceof Number && ((Number) confidence).doubleValue() >= MIN_LEARN_CONFIDENCE;
+    }
+
+    /**
+     * Adds the images of a verified item to the index if its analysis was learnable.
+     * Items saved before the decision was stored fall back to their AI confidence.
+     */
+    public void learn(PickupItem item) {
+        boolean learnable = item.getAiLearnable() != null
+            ? item.getAiLearnable()
+            : item.getAiConfidence() != null && item.getAiConfidence() >= MIN_LEARN_CONFIDENCE;
+        if (!learnable) {
+            return;
+        }
+        for (ItemImage image : item.getImages()) {
+            learn(image.getImageHash(), item.getWasteType());
+        }
+    }
+
+    /**
+     * Adds a stored image of a verified item to the index. Failures are logged and ignored.
+     */
+    private void learn(String imageHash, String wasteType) {
+        if (!enabled || imageHash == null || !isLearnable(wasteType)) {
+            return;
+        }
+        try {
+            Long hash = hashOf(imageHash, imageStoreService.resolve(imageHash));
+            if (hash == null) {
+                return;
+            }
+            int inserted = jdbcTemplate.update(
+                "INSERT IGNORE INTO `image_phashes` (`image_hash`, `dhash`, `waste_type`) VALUES (?, ?, ?)",
+                imageHash, hash, wasteType);
+            if (inserted > 0) {
+                indexLock.writeLock().lock();
+                try {
+                    index.add(hash, wasteType);
+                } finally {
+                    indexLock.writeLock().unlock();
+                }
+                learned.incrementAndGet();
+            }
+        } catch (Exception e) {
+            System.err.println("Could not index image " + imageHash + " for local classification: " + e.getMessage());
+        }
+    }
+
+    private void backfill() {
+        try {
+            while (true) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT ii.`image_hash`, MIN(i.`waste_type`) AS `waste_type` " +
+                    "FROM `item_images` ii JOIN `pickup_items` i ON i.`id` = ii.`pickup_item_id` " +
+                    "LEFT JOIN `image_phashes` p ON p.`image_hash` = ii.`image_hash` " +
+                    "WHERE i.`status` = 'VERIFIED' AND i.`waste_type` IS NOT NULL AND i.`waste_type` NOT LIKE 'Unknown%' " +
+                    "AND " + LEARNABLE_ITEM + " " +
+                    "AND ii.`image_hash` IS NOT NULL AND p.`image_hash` IS NULL " +
+                    "GROUP BY ii.`image_hash` LIMIT ?",
+                    backfillBatch);
+                long before = learned.get();
+                for (Map<String, Object> row : rows) {
+                    learn((String) row.get("image_hash"), (String) row.get("waste_type"));
+                }
+                // Stop when a batch indexes nothing new (done, or only undecodable images left)
+                if (rows.size() < backfillBatch || learned.get() == before) {
+                    break;
+                }
+            }
+            System.out.println("Local classifier index holds " + getIndexSize() + " images.");
+        } catch (Exception e) {
+            System.err.println("Perceptual hash backfill failed: " + e.getMessage());
+        }
+    }
+
+    private void addLearnableColumnIfMissing() {
+        Integer columns = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() " +
+            "AND table_name = 'pickup_items' AND column_name = 'ai_learnable'", Integer.class);
+        if (columns != null && columns == 0) {
+            jdbcTemplate.execute("ALTER TABLE `pickup_items` ADD COLUMN `ai_learnable` TINYINT(1) NULL");
+            System.out.println("Added column pickup_items.ai_learnable");
+        }
+    }
+
+    private Long hashOf(String imageHash, Path path) {
+        Long cached = imageHash != null ? hashCache.get(imageHash) : null;
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            if (path == null || !Files.isRegularFile(path)) {
+                return null;
+            }
+            BufferedImage image = ImageDecoding.decodeSubsampled(path, HASH_DECODE_DIMENSION);
+            if (image == null) {
+                hashFailures.incrementAndGet();
+                return null;
+            }
+            long hash = PerceptualHash.dHash(image);
+            if (imageHash != null) {
+                hashCache.put(imageHash, hash);
+            }
+            return hash;
+        } catch (IOException | RuntimeException e) {
+            hashFailures.incrementAndGet();
+            return null;
+        }
+    }
+
+    private static boolean isLearnable(String wasteType) {
+        return wasteType != null && !wasteType.isBlank() && !wasteType.startsWith("Unknown");
+    }
+
+    private int getIndexSize() {
+        indexLock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("indexedImages", getIndexSize());
+        stats.put("maxDistance", maxDistance);
+        stats.put("fallbackDistance", fallbackDistance);
+        stats.put("lookups", lookups.get());
+        stats.put("strongMatches", strongMatches.get());
+        stats.put("weakMatches", weakMatches.get());
+        stats.put("strongMatchRatio", lookups.get() == 0 ? 0.0 : (double) strongMatches.get() / lookups.get());
+        stats.put("learned", learned.get());
+        stats.put("hashFailures", hashFailures.get());
+        return stats;
+    }
+}
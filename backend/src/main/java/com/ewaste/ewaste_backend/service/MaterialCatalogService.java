@@ -0,0 +1,169 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.util.ReloadableJsonFile;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Recoverable materials per item category, with their estimated value.
+ *
+ * The catalog (analysis/materials.json on the classpath, or the file named by
+ * analysis.materials.file) lists a price per gram for each material and the element
+ * weights of each category. It is compiled once into immutable records; every element
+ * value and category total is computed from the prices at load time, so totals always
+ * equal the sum of the elements. Analyses put the shared element list and total into
+ * their result instead of building them per call. An external catalog is reloaded when
+ * it changes, which is how prices are updated; a catalog that fails validation leaves
+ * the current one active.
+ */
+@Service
+public class MaterialCatalogService {
+
+    private static final String BUNDLED_CATALOG = "analysis/materials.json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${analysis.materials.file:}")
+    private String catalogFile;
+
+    @Value("${analysis.materials.reload-seconds:30}")
+    private long reloadSeconds;
+
+    private ReloadableJsonFile file;
+    private volatile Catalog catalog;
+    private ScheduledExecutorService watcher;
+
+    /** One recoverable element of a category; serialized as is into analysis results. */
+    public record Element(String name, double weightGrams, double pricePerGram, double value) {
+    }
+
+    /** Elements and total value of one category. */
+    public record CategoryMaterials(String name, List<Element> elements, Double totalEstimatedValue) {
+    }
+
+    private record Catalog(String version, Map<String, CategoryMaterials> categories, CategoryMaterials fallback,
+                           String source, long loadedAt) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        file = new ReloadableJsonFile(objectMapper, BUNDLED_CATALOG, catalogFile);
+        catalog = load();
+        watcher = file.watch("material-catalog-watcher", reloadSeconds, this::reload);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Materials of a category; unknown categories get the catalog's fallback category.
+     */
+    public CategoryMaterials get(String category) {
+        Catalog current = catalog;
+        CategoryMaterials materials = category != null ? current.categories().get(category) : null;
+        return materials != null ? materials : current.fallback();
+    }
+
+    /**
+     * Sets the elements and totalEstimatedValue of an analysis result to the shared
+     * instances of the category.
+     */
+    public void apply(String category, Map<String, Object> result) {
+        CategoryMaterials materials = get(category);
+        result.put("elements", materials.elements());
+        result.put("totalEstimatedValue", materials.totalEstimatedValue());
+    }
+
+    /**
+     * Re-reads and recompiles the catalog.
+     * @throws IOException if the catalog cannot be read; the current catalog stays active
+     * @throws IllegalArgumentException if the catalog is malformed
+     */
+    public synchronized Map<String, Object> reload() throws IOException {
+        catalog = load();
+        System.out.println("Reloaded material catalog " + catalog.version() + " from " + catalog.source());
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        Catalog current = catalog;
+        Map<String, Object> totals = new LinkedHashMap<>();
+        for (CategoryMaterials materials : current.categories().values()) {
+            totals.put(materials.name(), materials.totalEstimatedValue());
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("version", current.version());
+        status.put("source", current.source());
+        status.put("loadedAt", current.loadedAt());
+        status.put("fallbackCategory", current.fallback().name());
+        status.put("totalEstimatedValues", totals);
+        return status;
+    }
+
+    private Catalog load() throws IOException {
+        JsonNode root = file.read();
+
+        Map<String, Double> prices = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> priceFields = root.path("pricesPerGram").fields();
+        while (priceFields.hasNext()) {
+            Map.Entry<String, JsonNode> price = priceFields.next();
+            if (!price.getValue().isNumber() || price.getValue().asDouble() < 0) {
+                throw new IllegalArgumentException("Invalid price for " + price.getKey());
+            }
+            prices.put(price.getKey(), price.getValue().asDouble());
+        }
+
+        Map<String, CategoryMaterials> categories = new LinkedHashMap<>();
+        for (JsonNode category : root.path("categories")) {
+            String name = category.path("name").asText(null);
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Catalog category without a name");
+            }
+            List<Element> elements = new ArrayList<>();
+            double total = 0.0;
+            for (JsonNode element : category.path("elements")) {
+                String material = element.path("material").asText();
+                Double pricePerGram = prices.get(material);
+                if (pricePerGram == null) {
+                    throw new IllegalArgumentException("No price for material '" + material + "' in " + name);
+                }
+                double weightGrams = element.path("weightGrams").asDouble(-1);
+                if (weightGrams < 0) {
+                    throw new IllegalArgumentException("Invalid weight for " + element.path("name").asText() + " in " + name);
+                }
+                double value = weightGrams * pricePerGram;
+                elements.add(new Element(element.path("name").asText(material), weightGrams, pricePerGram, value));
+                total += value;
+            }
+            double roundedTotal = Math.round(total * 100.0) / 100.0;
+            categories.put(name, new CategoryMaterials(name, List.copyOf(elements), roundedTotal));
+        }
+
+        CategoryMaterials fallback = categories.get(root.path("fallbackCategory").asText());
+        if (fallback == null) {
+            throw new IllegalArgumentException("Fallback category '" + root.path("fallbackCategory").asText() + "' is not in the catalog");
+        }
+        return new Catalog(root.path("version").asText("unversioned"), Collections.unmodifiableMap(categories),
+                           fallback, file.getSource(), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,148 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.util.PincodeDatasetCompiler;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline pincode -> (latitude, longitude) lookup backed by the binary dataset produced by
+ * PincodeDatasetCompiler. The file is memory-mapped once at startup and searched with a
+ * binary search, so lookups need no network and no per-call allocation beyond the result.
+ */
+@Service
+public class OfflineGeocoderService {
+
+    private static final String DATASET_RESOURCE = "geo/pincodes.bin";
+    private static final String SOURCE_RESOURCE = "geo/india-pincodes.csv";
+    private static final Pattern PINCODE_PATTERN = Pattern.compile("(?<!\\d)([1-9]\\d{5})(?!\\d)");
+
+    /** Optional path to an externally managed dataset; the bundled one is used when blank. */
+    @Value("${geo.pincode.dataset:}")
+    private String datasetPath;
+
+    private ByteBuffer dataset;
+    private int recordCount;
+
+    @PostConstruct
+    public void load() {
+        try {
+            Path file = resolveDatasetFile();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (mapped.getInt(0) != PincodeDatasetCompiler.MAGIC) {
+                    throw new IOException("Not a pincode dataset: " + file);
+                }
+                int count = mapped.getInt(8);
+                if (PincodeDatasetCompiler.HEADER_BYTES + (long) count * PincodeDatasetCompiler.RECORD_BYTES > channel.size()) {
+                    throw new IOException("Truncated pincode dataset: " + file);
+                }
+                dataset = mapped;
+                recordCount = count;
+            }
+            System.out.println("Loaded offline pincode dataset with " + recordCount + " entries from " + file);
+        } catch (Exception e) {
+            System.err.println("Offline pincode dataset unavailable, geocoding will use the API only: " + e.getMessage());
+            dataset = null;
+            recordCount = 0;
+        }
+    }
+
+    /**
+     * Locates the dataset on disk. A classpath resource inside a jar cannot be mapped
+     * directly, so it is copied to a temp file first. If the build did not compile the
+     * dataset (e.g. running from an IDE) the bundled CSV is compiled on the fly.
+     */
+    private Path resolveDatasetFile() throws IOException {
+        if (datasetPath != null && !datasetPath.isBlank()) {
+            return Paths.get(datasetPath);
+        }
+
+        ClassPathResource compiled = new ClassPathResource(DATASET_RESOURCE);
+        if (compiled.exists()) {
+            if (compiled.isFile()) {
+                return compiled.getFile().toPath();
+            }
+            Path temp = Files.createTempFile("pincodes", ".bin");
+            temp.toFile().deleteOnExit();
+            try (InputStream in = compiled.getInputStream()) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return temp;
+        }
+
+        ClassPathResource source = new ClassPathResource(SOURCE_RESOURCE);
+        Path temp = Files.createTempFile("pincodes", ".bin");
+        temp.toFile().deleteOnExit();
+        try (InputStream in = source.getInputStream();
+             OutputStream out = Files.newOutputStream(temp)) {
+            PincodeDatasetCompiler.compile(in, out);
+        }
+        return temp;
+    }
+
+    /**
+     * Looks up the centroid of a pincode.
+     * @param pincode Six-digit Indian pincode
+     * @return [latitude, longitude], or null if the pincode is not in the dataset
+     */
+    public double[] lookup(int pincode) {
+        ByteBuffer data = dataset;
+        if (data == null) {
+            return null;
+        }
+
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = PincodeDatasetCompiler.HEADER_BYTES + mid * PincodeDatasetCompiler.RECORD_BYTES;
+            int key = data.getInt(offset);
+            if (key < pincode) {
+                low = mid + 1;
+            } else if (key > pincode) {
+                high = mid - 1;
+            } else {
+                return new double[]{data.getFloat(offset + 4), data.getFloat(offset + 8)};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up the first six-digit pincode found in a free-form address or pincode string.
+     * @param address Address or pincode string
+     * @return [latitude, longitude], or null if no known pincode is present
+     */
+    public double[] lookup(String address) {
+        if (address == null || dataset == null) {
+            return null;
+        }
+        Matcher matcher = PINCODE_PATTERN.matcher(address);
+        while (matcher.find()) {
+            double[] coords = lookup(Integer.parseInt(matcher.group(1)));
+            if (coords != null) {
+                return coords;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return recordCount;
+    }
+}
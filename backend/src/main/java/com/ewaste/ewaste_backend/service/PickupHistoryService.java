@@ -0,0 +1,101 @@
+package com.ewaste.ewaste_backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paged reads of the per-user pickup history tables.
+ *
+ * Rows are returned without image bytes: `image_data` holds an image store URL
+ * (/api/images/{hash}) that the client loads separately. Tables created before the image
+ * store may still hold the image bytes in a BLOB column; those rows are moved into the
+ * store (and pinned there) the first time they appear on a page, one row at a time.
+ */
+@Service
+public class PickupHistoryService {
+
+    private static final String COLUMNS =
+        "`id`, `date`, `time`, `address`, `pincode`, `city`, `state`, `scheduler_name`, `phone`, `email`, " +
+        "`waste_type`, `status`, `user_id`, `created_at`";
+
+    private static final List<String> BINARY_TYPES = List.of("blob", "mediumblob", "longblob", "tinyblob", "binary", "varbinary");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Autowired
+    private ImageBlobService imageBlobService;
+
+    /**
+     * One page of a user's history, newest first.
+     * @param tableName History table of the user
+     * @param page Zero-based page number
+     * @param size Rows per page
+     * @return content, page, size, totalElements and totalPages
+     */
+    public Map<String, Object> getHistoryPage(String tableName, int page, int size) {
+        long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM `" + tableName + "`", Long.class);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT " + COLUMNS + ", " +
+            // CAST so BLOB-typed legacy columns still yield a string, not bytes Jackson would Base64
+            "CASE WHEN `image_data` LIKE '" + ImageStoreService.URL_PREFIX + "%' THEN CAST(`image_data` AS CHAR) END AS `image_url`, " +
+            "(`image_data` IS NOT NULL AND `image_data` NOT LIKE '" + ImageStoreService.URL_PREFIX + "%') AS `legacy_image` " +
+            "FROM `" + tableName + "` ORDER BY `date` DESC, `time` DESC, `id` DESC LIMIT ? OFFSET ?",
+            size, (long) page * size);
+
+        boolean binaryImages = hasBinaryImageColumn(tableName);
+        for (Map<String, Object> row : rows) {
+            Object legacy = row.remove("legacy_image");
+            if (binaryImages && legacy instanceof Number && ((Number) legacy).intValue() == 1) {
+                row.put("image_url", moveLegacyImage(tableName, ((Number) row.get("id")).longValue()));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("content", rows);
+        result.put("page", page);
+        result.put("size", size);
+        result.put("totalElements", total);
+        result.put("totalPages", (total + size - 1) / size);
+        return result;
+    }
+
+    /**
+     * Stores the bytes of one legacy row and replaces them with the image URL.
+     * @return The new image URL, or null if the row could not be moved
+     */
+    private String moveLegacyImage(String tableName, long id) {
+        try {
+            byte[] bytes = jdbcTemplate.queryForObject(
+                "SELECT `image_data` FROM `" + tableName + "` WHERE `id` = ?", byte[].class, id);
+            if (bytes == null || bytes.length == 0) {
+                return null;
+            }
+            ImageStoreService.StoredImage stored = imageStoreService.store(bytes, null);
+            // History rows are not reference-counted, so keep the image from being swept
+            imageBlobService.pin(stored.hash());
+            String url = stored.url();
+            jdbcTemplate.update("UPDATE `" + tableName + "` SET `image_data` = ? WHERE `id` = ?", url, id);
+            return url;
+        } catch (Exception e) {
+            System.err.println("Could not move legacy image of " + tableName + " row " + id + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean hasBinaryImageColumn(String tableName) {
+        List<String> types = jdbcTemplate.queryForList(
+            "SELECT `data_type` FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = ? AND column_name = 'image_data'",
+            String.class, tableName);
+        return !types.isEmpty() && BINARY_TYPES.contains(types.get(0).toLowerCase());
+    }
+}
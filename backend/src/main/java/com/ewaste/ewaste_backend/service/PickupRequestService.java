@@ -1,12 +1,16 @@
 package com.ewaste.ewaste_backend.service;
 
+import com.ewaste.ewaste_backend.dto.PickupItemSummaryDTO;
+import com.ewaste.ewaste_backend.dto.PickupSummaryDTO;
 import com.ewaste.ewaste_backend.dto.PickupUpdateDTO;
 import com.ewaste.ewaste_backend.model.PickupRequest;
 import com.ewaste.ewaste_backend.model.Worker;
 import com.ewaste.ewaste_backend.model.PickupLog;
+import com.ewaste.ewaste_backend.repository.PickupItemRepository;
 import com.ewaste.ewaste_backend.repository.PickupRequestRepository;
 import com.ewaste.ewaste_backend.repository.WorkerRepository;
 import com.ewaste.ewaste_backend.repository.PickupLogRepository;
+import com.ewaste.ewaste_backend.util.TransactionHooks;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -28,11 +33,17 @@ public class PickupRequestService {
     @Autowired
     private WorkerRepository workerRepository;
 
+    @Autowired
+    private PickupItemRepository pickupItemRepository;
+
     @Autowired
     private PickupLogRepository pickupLogRepository;
 
     @Autowired
-    private AutoAssignmentService autoAssignmentService;
+    private WorkerLoadService workerLoadService;
+
+    @Autowired
+    private AssignmentQueueService assignmentQueueService;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
@@ -46,34 +57,35 @@ public class PickupRequestService {
             pickupRequest.setStatus("PENDING");
         }
 
-        // Save the pickup request first
         PickupRequest savedRequest = pickupRequestRepository.save(pickupRequest);
 
-        // Try to auto-assign to the nearest worker
-        try {
-            System.out.println("Attempting auto-assignment for pickup request ID: " + savedRequest.getId() + 
-                             ", Pincode: " + savedRequest.getPincode() + 
-                             ", Address: " + savedRequest.getAddress());
-            
-            Worker assignedWorker = autoAssignmentService.smartAutoAssignPickup(savedRequest, 5); // Max 5 assignments per worker
-            if (assignedWorker != null) {
-                System.out.println("✅ SUCCESS: Auto-assigned pickup " + savedRequest.getId() + 
-                                " to worker " + assignedWorker.getUsername() + 
-                                " (ID: " + assignedWorker.getId() + 
-                                ", Pincode: " + assignedWorker.getPincode() + ")");
-            } else {
-                System.out.println("⚠️ WARNING: No suitable worker found for pickup " + savedRequest.getId());
-            }
-        } catch (Exception e) {
-            System.err.println("❌ ERROR: Auto-assignment failed for pickup " + savedRequest.getId() + ": " + e.getMessage());
-            e.printStackTrace();
-        }
+        // Assignment runs in the background once the insert is visible to other transactions
+        Long pickupId = savedRequest.getId();
+        TransactionHooks.afterCommit(() -> assignmentQueueService.enqueue(pickupId));
+        System.out.println("Queued pickup request ID " + pickupId + " for auto-assignment (pincode " + savedRequest.getPincode() + ")");
 
         return savedRequest;
     }
 
-    public List<PickupRequest> getPickupsByUserId(Long userId) {
-        return pickupRequestRepository.findByUserId(userId);
+    public List<PickupSummaryDTO> getPickupsByUserId(Long userId) {
+        return withItems(pickupRequestRepository.findSummariesByUserId(userId));
+    }
+
+    /**
+     * Loads the item summaries of all given pickups in one query and attaches them.
+     */
+    private List<PickupSummaryDTO> withItems(List<PickupSummaryDTO> pickups) {
+        if (pickups.isEmpty()) {
+            return pickups;
+        }
+        List<Long> pickupIds = pickups.stream().map(PickupSummaryDTO::getId).collect(Collectors.toList());
+        Map<Long, List<PickupItemSummaryDTO>> itemsByPickup = pickupItemRepository.findSummariesByPickupRequestIds(pickupIds)
+            .stream()
+            .collect(Collectors.groupingBy(PickupItemSummaryDTO::getPickupRequestId));
+        for (PickupSummaryDTO pickup : pickups) {
+            pickup.setItems(itemsByPickup.getOrDefault(pickup.getId(), new ArrayList<>()));
+        }
+        return pickups;
     }
 
     public Map<String, Long> getDailyPickupCounts(LocalDate startDate, LocalDate endDate) {
@@ -109,12 +121,14 @@ public class PickupRequestService {
 
         Worker assignedWorker = assignedWorkerOptional.get();
         String oldStatus = request.getStatus();
+        Long oldWorkerId = request.getAssignedWorkerId();
 
         request.setAssignedWorkerId(assignedWorker.getId());
 
         if (!"COMPLETED".equals(oldStatus) && !"CANCELLED".equals(oldStatus)) {
             request.setStatus("ASSIGNED");
         }
+        workerLoadService.onTransition(oldWorkerId, oldStatus, request.getAssignedWorkerId(), request.getStatus());
 
         PickupRequest updatedRequest = pickupRequestRepository.save(request);
 
@@ -130,19 +144,19 @@ public class PickupRequestService {
         return updatedRequest;
     }
 
-    public List<PickupRequest> getPickupRequestsForWorker(Long workerId) {
-        return pickupRequestRepository.findByAssignedWorkerIdOrderByDateAscTimeAsc(workerId);
+    public List<PickupSummaryDTO> getPickupRequestsForWorker(Long workerId) {
+        return withItems(pickupRequestRepository.findSummariesByAssignedWorkerId(workerId));
     }
 
-    public List<PickupRequest> getTodaysPendingPickupsForWorker(Long workerId) {
+    public List<PickupSummaryDTO> getTodaysPendingPickupsForWorker(Long workerId) {
         String todayDateString = LocalDate.now().format(DATE_FORMATTER);
-        return pickupRequestRepository.findByAssignedWorkerIdAndDateAndStatus(workerId, todayDateString, "ASSIGNED");
+        return withItems(pickupRequestRepository.findSummariesByAssignedWorkerIdAndDateAndStatus(workerId, todayDateString, "ASSIGNED"));
     }
 
-    public List<PickupRequest> getUnassignedPendingPickups() {
-        return pickupRequestRepository.findByAssignedWorkerIdIsNullAndStatusIn(
+    public List<PickupSummaryDTO> getUnassignedPendingPickups() {
+        return withItems(pickupRequestRepository.findUnassignedSummaries(
             List.of("PENDING", "Paid - Pending Pickup")
-        );
+        ));
     }
 
     @Transactional
@@ -167,6 +181,7 @@ public class PickupRequestService {
         }
 
         request.setStatus(newStatus);
+        workerLoadService.onTransition(request.getAssignedWorkerId(), oldStatus, request.getAssignedWorkerId(), newStatus);
 
         if ("COMPLETED".equals(newStatus)) {
             request.setWeightKg(weightKg);
@@ -202,6 +217,7 @@ public class PickupRequestService {
             PickupRequest pickup = pickupOpt.get();
 
             if (updateDTO.getStatus() != null && !updateDTO.getStatus().isEmpty()) {
+                workerLoadService.onTransition(pickup.getAssignedWorkerId(), pickup.getStatus(), pickup.getAssignedWorkerId(), updateDTO.getStatus());
                 pickup.setStatus(updateDTO.getStatus());
             }
             if (updateDTO.getWeightKg() != null) {
@@ -228,8 +244,8 @@ public class PickupRequestService {
         return pickupLogRepository.findByWorkerIdOrderByTimestampDesc(workerId);
     }
 
-    public List<PickupRequest> getAllPickupRequests() {
-        return pickupRequestRepository.findAll();
+    public List<PickupSummaryDTO> getAllPickupRequests() {
+        return withItems(pickupRequestRepository.findAllSummaries());
     }
 
     public PickupRequest getPickupRequestById(Long requestId) {
@@ -252,6 +268,7 @@ public class PickupRequestService {
         if (!workerId.equals(request.getAssignedWorkerId())) throw new RuntimeException("Unauthorized");
 
         String oldDate = request.getDate();
+        workerLoadService.onTransition(request.getAssignedWorkerId(), request.getStatus(), request.getAssignedWorkerId(), "RESCHEDULED");
         request.setDate(newDate);
         request.setRescheduleReason(reason);
         request.setStatus("RESCHEDULED");
@@ -277,13 +294,13 @@ public class PickupRequestService {
         return pickupRequestRepository.save(request);
     }
 
-    public List<PickupRequest> getMissedPickupsForWorker(Long workerId) {
+    public List<PickupSummaryDTO> getMissedPickupsForWorker(Long workerId) {
         String today = LocalDate.now().format(DATE_FORMATTER);
         // Logic: Date < Today AND Status != COMPLETED/CANCELLED
         // Note: JPA Query derivation might be complex for string dates, using filtered stream for simplicity in prototype
-        List<PickupRequest> allAssigned = pickupRequestRepository.findByAssignedWorkerIdOrderByDateAscTimeAsc(workerId);
-        return allAssigned.stream()
+        List<PickupSummaryDTO> allAssigned = pickupRequestRepository.findSummariesByAssignedWorkerId(workerId);
+        return withItems(allAssigned.stream()
             .filter(p -> p.getDate().compareTo(today) < 0 && !List.of("COMPLETED", "CANCELLED", "RESCHEDULED").contains(p.getStatus()))
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
     }
 }
@@ -0,0 +1,80 @@
+package com.ewaste.ewaste_backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Handle to an uploaded image that has been streamed to disk and hashed.
+ *
+ * Created by ImageStoreService.receive; consumers (analysis, storage) read the content
+ * through this handle instead of holding it as a byte array. Closing the handle deletes
+ * the temporary file unless the image was moved into the store.
+ */
+public class UploadedImage implements AutoCloseable {
+
+    private Path path;
+    private final String hash;
+    private final long size;
+    private final String mimeType;
+    private final String originalFilename;
+    private boolean stored;
+
+    UploadedImage(Path path, String hash, long size, String mimeType, String originalFilename) {
+        this.path = path;
+        this.hash = hash;
+        this.size = size;
+        this.mimeType = mimeType;
+        this.originalFilename = originalFilename;
+    }
+
+    public String getHash() { return hash; }
+    public long getSize() { return size; }
+    public String getMimeType() { return mimeType; }
+    public String getOriginalFilename() { return originalFilename; }
+
+    /** Current location of the content: the temp file, or the store file once stored. */
+    public Path getPath() { return path; }
+
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    /**
+     * Base64 of the whole image, encoded chunk by chunk so only the resulting string is
+     * held in memory.
+     */
+    public String toBase64() throws IOException {
+        StringBuilder encoded = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, (size + 2) / 3 * 4));
+        Base64.Encoder encoder = Base64.getEncoder();
+        byte[] chunk = new byte[48 * 1024]; // multiple of 3, so padding only appears at the end
+        try (InputStream in = openStream()) {
+            int filled;
+            while ((filled = in.readNBytes(chunk, 0, chunk.length)) > 0) {
+                byte[] part = filled == chunk.length ? chunk : Arrays.copyOf(chunk, filled);
+                encoded.append(new String(encoder.encode(part), StandardCharsets.ISO_8859_1));
+            }
+        }
+        return encoded.toString();
+    }
+
+    void markStored(Path storedPath) {
+        this.path = storedPath;
+        this.stored = true;
+    }
+
+    @Override
+    public void close() {
+        if (!stored) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.err.println("Could not delete upload temp file " + path + ": " + e.getMessage());
+            }
+        }
+    }
+}
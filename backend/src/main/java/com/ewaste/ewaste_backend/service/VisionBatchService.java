@@ -0,0 +1,352 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.util.DependencyGuard;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Packs label-detection requests into shared Vision `images:annotate` calls.
+ *
+ * Callers enqueue images and get one future per image. A dispatcher thread takes the
+ * first waiting image, collects whatever else arrives within a short window (up to the
+ * per-call image limit) and sends them as one `requests` array, so the images of one
+ * item and concurrent analyses from different users share a round-trip. The per-image
+ * entries of the response are handed back to the matching futures.
+ *
+ * The response is parsed incrementally from the HTTP stream with the shared ObjectMapper's
+ * parser, never buffered as a String or bound to a full tree. Only label descriptions and
+ * scores are kept, and each image's labels are read only up to the first one that maps to
+ * a category; the rest of that image's entry is skipped token by token.
+ *
+ * Each future completes with the image's Annotation (no labels if Vision found none),
+ * with Annotation.DEGRADED if the Vision guard rejected the call, or with null on any
+ * other failure.
+ */
+@Service
+public class VisionBatchService {
+
+    private static final String ANNOTATE_URL = "https://vision.googleapis.com/v1/images:annotate?key=";
+
+    @Value("${google.maps.api.key}")
+    private String googleApiKey;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KeywordClassifierService keywordClassifierService;
+
+    @Value("${resilience.vision.max-concurrent:8}")
+    private int visionMaxConcurrent;
+
+    @Value("${resilience.vision.acquire-timeout-ms:200}")
+    private long visionAcquireTimeoutMs;
+
+    @Value("${resilience.vision.failure-threshold:5}")
+    private int visionFailureThreshold;
+
+    @Value("${resilience.vision.open-seconds:30}")
+    private long visionOpenSeconds;
+
+    /** Vision accepts at most 16 images per annotate request. */
+    @Value("${vision.batch.max-images:16}")
+    private int maxImages;
+
+    /** Keeps the JSON body under Vision's request size limit. */
+    @Value("${vision.batch.max-base64-bytes:8000000}")
+    private long maxBase64Bytes;
+
+    @Value("${vision.batch.window-ms:50}")
+    private long windowMs;
+
+    private DependencyGuard visionGuard;
+
+    private final LinkedBlockingQueue<PendingImage> queue = new LinkedBlockingQueue<>();
+    private Thread dispatcher;
+    private ExecutorService callPool;
+    private volatile boolean running;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong images = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+    private final AtomicLong oversizeImages = new AtomicLong();
+
+    /** One label of an image, as scored by Vision. */
+    public record Label(String description, double score) {
+    }
+
+    /**
+     * Vision's labels for one image, highest score first, or degraded when the call was
+     * rejected by the Vision guard.
+     */
+    public record Annotation(List<Label> labels, boolean degraded) {
+        public static final Annotation DEGRADED = new Annotation(List.of(), true);
+    }
+
+    private record PendingImage(String base64, CompletableFuture<Annotation> result) {
+    }
+
+    @PostConstruct
+    public void init() {
+        visionGuard = new DependencyGuard("Google Vision", visionMaxConcurrent, visionAcquireTimeoutMs,
+                                          visionFailureThreshold, visionOpenSeconds * 1000L);
+        AtomicInteger threadNumber = new AtomicInteger();
+        callPool = Executors.newFixedThreadPool(visionMaxConcurrent, r -> {
+            Thread thread = new Thread(r, "vision-call-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        dispatcher = new Thread(this::dispatch, "vision-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+        callPool.shutdownNow();
+    }
+
+    public Map<String, Object> getGuardStats() {
+        return visionGuard.getStats();
+    }
+
+    /**
+     * Queues label detection for the given images. Images whose Base64 alone exceeds
+     * vision.batch.max-base64-bytes are not sent; their futures complete with null.
+     * @return One future per image, in the same order
+     */
+    public List<CompletableFuture<Annotation>> annotate(List<UploadedImage> uploads) throws IOException {
+        List<CompletableFuture<Annotation>> results = new ArrayList<>(uploads.size());
+        List<PendingImage> pending = new ArrayList<>(uploads.size());
+        for (UploadedImage upload : uploads) {
+            CompletableFuture<Annotation> result = new CompletableFuture<>();
+            results.add(result);
+            // Base64 grows the image by a third; one that cannot fit a request on its own
+            // would make Vision reject the whole batch, so it is failed here instead
+            if ((upload.getSize() + 2) / 3 * 4 > maxBase64Bytes) {
+                oversizeImages.incrementAndGet();
+                System.err.println("Image " + upload.getHash() + " is too large for a Vision request, not sent");
+                result.complete(null);
+                continue;
+            }
+            pending.add(new PendingImage(upload.toBase64(), result));
+        }
+        // Queued together so the images of one caller normally end up in the same call
+        queue.addAll(pending);
+        return results;
+    }
+
+    private void dispatch() {
+        PendingImage carried = null;
+        while (running) {
+            List<PendingImage> batch = new ArrayList<>();
+            try {
+                PendingImage first = carried != null ? carried : queue.take();
+                carried = null;
+                batch.add(first);
+                long batchBytes = first.base64().length();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < maxImages) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingImage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (batchBytes + next.base64().length() > maxBase64Bytes) {
+                        // Too big to add; it starts the next call
+                        carried = next;
+                        break;
+                    }
+                    batch.add(next);
+                    batchBytes += next.base64().length();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(p -> p.result().complete(null));
+                return;
+            }
+            try {
+                callPool.execute(() -> send(batch));
+            } catch (Exception e) {
+                batch.forEach(p -> p.result().complete(null));
+            }
+        }
+    }
+
+    private void send(List<PendingImage> batch) {
+        calls.incrementAndGet();
+        images.addAndGet(batch.size());
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        try {
+            Map<String, Object> featureMap = new HashMap<>();
+            featureMap.put("type", "LABEL_DETECTION");
+            featureMap.put("maxResults", 10);
+
+            List<Map<String, Object>> requests = new ArrayList<>(batch.size());
+            for (PendingImage pending : batch) {
+                Map<String, Object> requestMap = new HashMap<>();
+                requestMap.put("image", Collections.singletonMap("content", pending.base64()));
+                requestMap.put("features", Collections.singletonList(featureMap));
+                requests.add(requestMap);
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(Collections.singletonMap("requests", requests), headers);
+
+            System.out.println("Calling Vision API with " + batch.size() + " image(s)...");
+            // Bulkhead + circuit breaker: a slow or failing Vision API falls back to the low-confidence path
+            List<Annotation> responses = visionGuard.call(
+                () -> restTemplate.execute(ANNOTATE_URL + googleApiKey, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                    response -> {
+                        System.out.println("Vision API Response Code: " + response.getStatusCode());
+                        return response.getStatusCode() == HttpStatus.OK
+                            ? parseResponses(response.getBody(), batch.size())
+                            : Collections.<Annotation>emptyList();
+                    }),
+                () -> null
+            );
+            if (responses == null) {
+                System.err.println("Vision API unavailable (circuit " + visionGuard.getState() + "), using low-confidence fallback");
+                batch.forEach(p -> p.result().complete(Annotation.DEGRADED));
+                return;
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(i < responses.size() ? responses.get(i) : null);
+            }
+        } catch (Exception e) {
+            failedCalls.incrementAndGet();
+            System.err.println("Error calling Vision API: " + e.getMessage());
+            batch.forEach(p -> p.result().complete(null));
+        }
+    }
+
+    /**
+     * Reads the `responses` array of an annotate response, one entry per image; entries
+     * Vision answered with an error are null.
+     */
+    private List<Annotation> parseResponses(InputStream body, int expected) throws IOException {
+        List<Annotation> entries = new ArrayList<>(expected);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return entries;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("responses".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        entries.add(parseEntry(parser, entries.size()));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return entries;
+    }
+
+    /** Reads one image's entry; the parser is on its START_OBJECT and is left on its END_OBJECT. */
+    private Annotation parseEntry(JsonParser parser, int index) throws IOException {
+        List<Label> labels = List.of();
+        JsonNode error = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("labelAnnotations".equals(field) && value == JsonToken.START_ARRAY) {
+                labels = parseLabels(parser);
+            } else if ("error".equals(field)) {
+                error = objectMapper.readTree(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (error != null) {
+            System.err.println("Vision API error for image " + index + " of batch: " + error);
+            return null;
+        }
+        return new Annotation(labels, false);
+    }
+
+    /**
+     * Reads labels in Vision's order (highest score first) up to and including the first
+     * one that maps to a category; later labels are skipped without being materialized.
+     */
+    private List<Label> parseLabels(JsonParser parser) throws IOException {
+        List<Label> labels = new ArrayList<>();
+        boolean matched = false;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            if (matched) {
+                parser.skipChildren();
+                continue;
+            }
+            String description = null;
+            double score = 0.0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("description".equals(field)) {
+                    description = parser.getText();
+                } else if ("score".equals(field)) {
+                    score = parser.getDoubleValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (description != null) {
+                labels.add(new Label(description, score));
+                matched = keywordClassifierService.matchesCategory(description);
+            }
+        }
+        return labels;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("calls", calls.get());
+        stats.put("images", images.get());
+        stats.put("failedCalls", failedCalls.get());
+        stats.put("averageImagesPerCall", calls.get() == 0 ? 0.0 : (double) images.get() / calls.get());
+        stats.put("largestBatch", largestBatch.get());
+        stats.put("oversizeImages", oversizeImages.get());
+        return stats;
+    }
+}
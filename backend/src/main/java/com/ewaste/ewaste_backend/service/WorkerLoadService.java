@@ -0,0 +1,116 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.repository.PickupRequestRepository;
+import com.ewaste.ewaste_backend.util.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-worker count of active (not yet completed or cancelled) assignments.
+ *
+ * Counts are kept in memory so capacity checks are a map lookup instead of loading every
+ * assigned pickup. Every status/worker change goes through {@link #onTransition}, which
+ * applies the delta once the surrounding transaction commits. The counters are rebuilt
+ * from a grouped COUNT query at startup and periodically, which corrects any drift from
+ * writes made outside this service.
+ */
+@Service
+public class WorkerLoadService {
+
+    public static final List<String> ACTIVE_STATUSES = List.of("PENDING", "Paid - Pending Pickup", "ASSIGNED", "RESCHEDULED");
+
+    @Autowired
+    private PickupRequestRepository pickupRequestRepository;
+
+    @Value("${assignment.load.reconcile-minutes:10}")
+    private long reconcileMinutes;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService reconciler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void start() {
+        reconcile();
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "worker-load-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcile, reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+    }
+
+    /**
+     * Rebuilds all counters from the database.
+     */
+    public void reconcile() {
+        try {
+            Map<Long, Integer> fresh = new HashMap<>();
+            for (Object[] row : pickupRequestRepository.countActiveAssignmentsByWorker(ACTIVE_STATUSES)) {
+                fresh.put((Long) row[0], ((Long) row[1]).intValue());
+            }
+            loads.keySet().removeIf(workerId -> !fresh.containsKey(workerId));
+            fresh.forEach((workerId, count) -> loads.computeIfAbsent(workerId, id -> new AtomicInteger()).set(count));
+        } catch (Exception e) {
+            System.err.println("Error reconciling worker load counters: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Number of active assignments currently held by a worker.
+     */
+    public int getLoad(Long workerId) {
+        AtomicInteger load = loads.get(workerId);
+        return load == null ? 0 : load.get();
+    }
+
+    /**
+     * Records a change of assigned worker and/or status on one pickup. The counters are
+     * updated after the current transaction commits (immediately if there is none).
+     */
+    public void onTransition(Long oldWorkerId, String oldStatus, Long newWorkerId, String newStatus) {
+        boolean wasCounted = oldWorkerId != null && ACTIVE_STATUSES.contains(oldStatus);
+        boolean isCounted = newWorkerId != null && ACTIVE_STATUSES.contains(newStatus);
+        if (wasCounted && isCounted && oldWorkerId.equals(newWorkerId)) {
+            return;
+        }
+        if (!wasCounted && !isCounted) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            if (wasCounted) {
+                adjust(oldWorkerId, -1);
+            }
+            if (isCounted) {
+                adjust(newWorkerId, 1);
+            }
+        });
+    }
+
+    private void adjust(Long workerId, int delta) {
+        AtomicInteger load = loads.computeIfAbsent(workerId, id -> new AtomicInteger());
+        load.updateAndGet(current -> Math.max(0, current + delta));
+    }
+}
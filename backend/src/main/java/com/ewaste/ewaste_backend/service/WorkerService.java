@@ -2,8 +2,11 @@ package com.ewaste.ewaste_backend.service;
 
 import com.ewaste.ewaste_backend.model.Worker;
 import com.ewaste.ewaste_backend.repository.WorkerRepository;
+import com.ewaste.ewaste_backend.util.TransactionHooks;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +26,32 @@ public class WorkerService {
     @Autowired
     private GoMapsProService goMapsProService;
 
+    @Autowired
+    private WorkerSpatialIndex workerSpatialIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Makes sure the composite index used by the radius-search bounding box exists,
+     * also on databases whose schema is not managed by Hibernate.
+     */
+    @PostConstruct
+    public void ensureLocationIndex() {
+        try {
+            Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'workers' AND index_name = 'idx_workers_lat_lng'",
+                Integer.class);
+            if (existing != null && existing == 0) {
+                jdbcTemplate.execute("CREATE INDEX `idx_workers_lat_lng` ON `workers` (`latitude`, `longitude`)");
+                System.out.println("Created index idx_workers_lat_lng on workers(latitude, longitude)");
+            }
+        } catch (Exception e) {
+            System.err.println("Could not ensure workers location index: " + e.getMessage());
+        }
+    }
+
     @Transactional
     public Worker registerWorker(Worker worker) {
         // Encode password
@@ -41,7 +70,35 @@ public class WorkerService {
             }
         }
         
-        return workerRepository.save(worker);
+        Worker savedWorker = workerRepository.save(worker);
+        TransactionHooks.afterCommit(() -> workerSpatialIndex.upsert(savedWorker));
+        return savedWorker;
+    }
+
+    @Transactional
+    public Worker updateWorkerLocation(Long workerId, Double latitude, Double longitude) {
+        Worker worker = workerRepository.findById(workerId)
+            .orElseThrow(() -> new IllegalArgumentException("Worker not found with ID: " + workerId));
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Both latitude and longitude are required.");
+        }
+
+        worker.setLatitude(latitude);
+        worker.setLongitude(longitude);
+        Worker savedWorker = workerRepository.save(worker);
+        TransactionHooks.afterCommit(() -> workerSpatialIndex.upsert(savedWorker));
+        return savedWorker;
+    }
+
+    @Transactional
+    public Worker updateWorkerAvailability(Long workerId, boolean availability) {
+        Worker worker = workerRepository.findById(workerId)
+            .orElseThrow(() -> new IllegalArgumentException("Worker not found with ID: " + workerId));
+
+        worker.setAvailability(availability);
+        Worker savedWorker = workerRepository.save(worker);
+        TransactionHooks.afterCommit(() -> workerSpatialIndex.setAvailability(workerId, availability));
+        return savedWorker;
     }
 
     public Optional<Worker> findWorkerByUsername(String username) {
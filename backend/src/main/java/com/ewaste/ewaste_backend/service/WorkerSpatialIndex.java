@@ -0,0 +1,383 @@
+package com.ewaste.ewaste_backend.service;
+
+import com.ewaste.ewaste_backend.model.Worker;
+import com.ewaste.ewaste_backend.repository.WorkerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory grid index of worker locations for nearest-worker and radius queries.
+ *
+ * Worker coordinates live in parallel primitive arrays; a uniform lat/lng grid maps each
+ * cell to the slots inside it. Nearest queries walk rings of cells outwards from the
+ * query point and stop as soon as no unvisited cell can hold a closer worker, so a query
+ * only touches the workers around the pickup instead of the whole workers table.
+ * The index is built once at startup and kept current through upsert/remove.
+ */
+@Service
+public class WorkerSpatialIndex {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    @Autowired
+    private WorkerRepository workerRepository;
+
+    @Autowired
+    private DistanceCalculationService distanceCalculationService;
+
+    /** Grid cell edge in degrees (~5.5 km of latitude). */
+    @Value("${assignment.index.cell-degrees:0.05}")
+    private double cellDegrees;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[64];
+    private double[] lats = new double[64];
+    private double[] lons = new double[64];
+    private boolean[] available = new boolean[64];
+    private long[] cellOf = new long[64];
+    private int size;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<Long, IntList> cells = new HashMap<>();
+
+    private int minRow = Integer.MAX_VALUE;
+    private int maxRow = Integer.MIN_VALUE;
+    private int minCol = Integer.MAX_VALUE;
+    private int maxCol = Integer.MIN_VALUE;
+
+    /** A worker found by a spatial query, with its distance from the query point. */
+    public record Neighbor(Long workerId, double distanceKm) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void rebuild() {
+        List<Object[]> rows = workerRepository.findAllLocations();
+
+        // Resolve pincode-only workers before taking the lock; this may hit the geocoder
+        List<double[]> resolved = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            resolved.add(resolveCoordinates((Double) row[1], (Double) row[2], (String) row[3]));
+        }
+
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            slotById.clear();
+            cells.clear();
+            minRow = Integer.MAX_VALUE;
+            maxRow = Integer.MIN_VALUE;
+            minCol = Integer.MAX_VALUE;
+            maxCol = Integer.MIN_VALUE;
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = rows.get(i);
+                double[] coords = resolved.get(i);
+                if (coords != null) {
+                    put((Long) row[0], coords[0], coords[1], row[4] == null || (Boolean) row[4]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Worker spatial index built with " + size + " of " + rows.size() + " workers");
+    }
+
+    /**
+     * Adds or moves a worker in the index. Workers without stored coordinates are placed
+     * at their pincode centroid; workers that cannot be located are removed.
+     */
+    public void upsert(Worker worker) {
+        if (worker == null || worker.getId() == null) {
+            return;
+        }
+        double[] coords = resolveCoordinates(worker.getLatitude(), worker.getLongitude(), worker.getPincode());
+        if (coords == null) {
+            remove(worker.getId());
+            return;
+        }
+        boolean isAvailable = worker.getAvailability() == null || worker.getAvailability();
+        lock.writeLock().lock();
+        try {
+            put(worker.getId(), coords[0], coords[1], isAvailable);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setAvailability(Long workerId, boolean isAvailable) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(workerId);
+            if (slot != null) {
+                available[slot] = isAvailable;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long workerId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(workerId);
+            if (slot == null) {
+                return;
+            }
+            cells.get(cellOf[slot]).remove(slot);
+            int last = size - 1;
+            if (slot != last) {
+                // Move the last slot into the hole so the arrays stay dense
+                IntList lastCell = cells.get(cellOf[last]);
+                lastCell.replace(last, slot);
+                ids[slot] = ids[last];
+                lats[slot] = lats[last];
+                lons[slot] = lons[last];
+                available[slot] = available[last];
+                cellOf[slot] = cellOf[last];
+                slotById.put(ids[slot], slot);
+            }
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds up to k available workers closest to a point, nearest first.
+     * @param filter Extra predicate on worker ID (e.g. capacity), or null for none
+     */
+    public List<Neighbor> nearest(double lat, double lon, int k, LongPredicate filter) {
+        if (k <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (size == 0) {
+                return List.of();
+            }
+            // Max-heap on distance holding the best k candidates so far
+            PriorityQueue<Neighbor> best = new PriorityQueue<>(Comparator.comparingDouble(Neighbor::distanceKm).reversed());
+            int row = row(lat);
+            int col = col(lon);
+            int maxRing = Math.max(Math.max(Math.abs(row - minRow), Math.abs(row - maxRow)),
+                                   Math.max(Math.abs(col - minCol), Math.abs(col - maxCol)));
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                if (best.size() == k && best.peek().distanceKm() <= ringLowerBoundKm(lat, ring)) {
+                    break;
+                }
+                for (int r = row - ring; r <= row + ring; r++) {
+                    boolean edgeRow = r == row - ring || r == row + ring;
+                    int step = edgeRow ? 1 : 2 * ring;
+                    for (int c = col - ring; c <= col + ring; c += Math.max(step, 1)) {
+                        IntList cell = cells.get(cellKey(r, c));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int i = 0; i < cell.size; i++) {
+                            int slot = cell.values[i];
+                            if (!available[slot] || (filter != null && !filter.test(ids[slot]))) {
+                                continue;
+                            }
+                            double distance = distanceCalculationService.calculateDistance(lat, lon, lats[slot], lons[slot]);
+                            if (best.size() < k) {
+                                best.add(new Neighbor(ids[slot], distance));
+                            } else if (distance < best.peek().distanceKm()) {
+                                best.poll();
+                                best.add(new Neighbor(ids[slot], distance));
+                            }
+                        }
+                    }
+                }
+            }
+
+            List<Neighbor> result = new ArrayList<>(best);
+            result.sort(Comparator.comparingDouble(Neighbor::distanceKm));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds all available workers within a radius of a point, nearest first.
+     */
+    public List<Neighbor> withinRadius(double lat, double lon, double radiusKm) {
+        lock.readLock().lock();
+        try {
+            List<Neighbor> result = new ArrayList<>();
+            if (size == 0) {
+                return result;
+            }
+            double latSpan = radiusKm / KM_PER_DEGREE;
+            double lonSpan = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(Math.min(Math.abs(lat) + latSpan, 89.0))), 0.01));
+            for (int r = row(lat - latSpan); r <= row(lat + latSpan); r++) {
+                for (int c = col(lon - lonSpan); c <= col(lon + lonSpan); c++) {
+                    IntList cell = cells.get(cellKey(r, c));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        int slot = cell.values[i];
+                        if (!available[slot]) {
+                            continue;
+                        }
+                        double distance = distanceCalculationService.calculateDistance(lat, lon, lats[slot], lons[slot]);
+                        if (distance <= radiusKm) {
+                            result.add(new Neighbor(ids[slot], distance));
+                        }
+                    }
+                }
+            }
+            result.sort(Comparator.comparingDouble(Neighbor::distanceKm));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the indexed coordinates of a worker, or null if the worker is not indexed.
+     */
+    public double[] getLocation(Long workerId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(workerId);
+            return slot == null ? null : new double[]{lats[slot], lons[slot]};
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Internals (callers hold the write lock) ---
+
+    private void put(Long workerId, double lat, double lon, boolean isAvailable) {
+        Integer existing = slotById.get(workerId);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            cells.get(cellOf[slot]).remove(slot);
+        } else {
+            ensureCapacity(size + 1);
+            slot = size++;
+            slotById.put(workerId, slot);
+        }
+
+        int row = row(lat);
+        int col = col(lon);
+        long key = cellKey(row, col);
+        ids[slot] = workerId;
+        lats[slot] = lat;
+        lons[slot] = lon;
+        available[slot] = isAvailable;
+        cellOf[slot] = key;
+        cells.computeIfAbsent(key, k -> new IntList()).add(slot);
+
+        minRow = Math.min(minRow, row);
+        maxRow = Math.max(maxRow, row);
+        minCol = Math.min(minCol, col);
+        maxCol = Math.max(maxCol, col);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newLength);
+        lats = Arrays.copyOf(lats, newLength);
+        lons = Arrays.copyOf(lons, newLength);
+        available = Arrays.copyOf(available, newLength);
+        cellOf = Arrays.copyOf(cellOf, newLength);
+    }
+
+    private double[] resolveCoordinates(Double lat, Double lon, String pincode) {
+        if (lat != null && lon != null) {
+            return new double[]{lat, lon};
+        }
+        if (pincode != null && !pincode.isBlank()) {
+            return distanceCalculationService.geocodeAddress(pincode);
+        }
+        return null;
+    }
+
+    /**
+     * Smallest possible distance from the query point to any cell in the given ring:
+     * at least (ring - 1) whole cells away along one axis.
+     */
+    private double ringLowerBoundKm(double lat, int ring) {
+        if (ring <= 1) {
+            return 0.0;
+        }
+        double farLat = Math.min(Math.abs(lat) + ring * cellDegrees, 89.0);
+        double cellKm = cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(farLat));
+        return (ring - 1) * cellKm;
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellDegrees);
+    }
+
+    private int col(double lon) {
+        return (int) Math.floor(lon / cellDegrees);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    /** Growable int array used for the slots of one grid cell. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        void replace(int oldValue, int newValue) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == oldValue) {
+                    values[i] = newValue;
+                    return;
+                }
+            }
+        }
+    }
+}
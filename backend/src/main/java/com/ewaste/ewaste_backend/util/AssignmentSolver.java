@@ -0,0 +1,232 @@
+package com.ewaste.ewaste_backend.util;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Min-cost assignment of pickups to capacity-limited workers.
+ *
+ * Each pickup i has a short list of candidate workers candidates[i][c] with travel cost
+ * costs[i][c]. Every worker w can take at most capacity[w] pickups. The solver maximizes
+ * the number of assigned pickups first and minimizes total cost second.
+ *
+ * Small/dense problems are solved exactly with the Hungarian algorithm over worker
+ * "slots" (one column per unit of capacity). Large problems use greedy-with-regret:
+ * the pickup that would lose the most by not getting its best worker is placed first.
+ */
+public final class AssignmentSolver {
+
+    /** Cost of leaving a pickup unassigned; dominates any real travel distance. */
+    private static final double UNASSIGNED_COST = 1_000_000.0;
+    private static final double INFEASIBLE_COST = 1_000_000_000.0;
+
+    public enum Method { HUNGARIAN, REGRET }
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * @param candidates    Per pickup, indices of candidate workers
+     * @param costs         Per pickup, cost of each candidate (parallel to candidates)
+     * @param capacity      Remaining capacity per worker index
+     * @param maxDenseCells Largest pickups x columns matrix to solve exactly
+     * @return Result with the chosen worker index per pickup (-1 when unassigned)
+     */
+    public static Result solve(int[][] candidates, double[][] costs, int[] capacity, long maxDenseCells) {
+        int n = candidates.length;
+        if (n == 0) {
+            return new Result(new int[0], Method.HUNGARIAN);
+        }
+
+        // Workers actually referenced, and how many slots each can usefully offer
+        int[] demand = new int[capacity.length];
+        for (int[] row : candidates) {
+            for (int w : row) {
+                demand[w]++;
+            }
+        }
+        int slots = 0;
+        for (int w = 0; w < capacity.length; w++) {
+            slots += Math.min(Math.max(capacity[w], 0), demand[w]);
+        }
+
+        if ((long) n * (slots + n) <= maxDenseCells) {
+            return new Result(hungarian(candidates, costs, capacity, demand, slots), Method.HUNGARIAN);
+        }
+        return new Result(regret(candidates, costs, capacity), Method.REGRET);
+    }
+
+    private static int[] hungarian(int[][] candidates, double[][] costs, int[] capacity, int[] demand, int slots) {
+        int n = candidates.length;
+
+        // Compact the referenced workers into dense columns
+        int[] workerColumn = new int[capacity.length];
+        Arrays.fill(workerColumn, -1);
+        int workers = 0;
+        for (int w = 0; w < capacity.length; w++) {
+            if (Math.min(capacity[w], demand[w]) > 0) {
+                workerColumn[w] = workers++;
+            }
+        }
+        int[] columnWorker = new int[workers];
+        int[] slotWorker = new int[slots];
+        int s = 0;
+        for (int w = 0; w < capacity.length; w++) {
+            if (workerColumn[w] >= 0) {
+                columnWorker[workerColumn[w]] = w;
+                for (int k = Math.min(capacity[w], demand[w]); k > 0; k--) {
+                    slotWorker[s++] = workerColumn[w];
+                }
+            }
+        }
+
+        double[][] workerCost = new double[n][workers];
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(workerCost[i], INFEASIBLE_COST);
+            for (int c = 0; c < candidates[i].length; c++) {
+                int column = workerColumn[candidates[i][c]];
+                if (column >= 0) {
+                    workerCost[i][column] = Math.min(workerCost[i][column], costs[i][c]);
+                }
+            }
+        }
+
+        // Columns 1..slots are worker slots, slots+1..slots+n are "unassigned" dummies
+        int m = slots + n;
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double a = j <= slots ? workerCost[i0 - 1][slotWorker[j - 1]] : UNASSIGNED_COST;
+                        double cur = a - u[i0] - v[j];
+                        if (cur < minv[j]) {
+                            minv[j] = cur;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta) {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        for (int j = 1; j <= slots; j++) {
+            int row = p[j];
+            if (row != 0 && workerCost[row - 1][slotWorker[j - 1]] < INFEASIBLE_COST) {
+                assignment[row - 1] = columnWorker[slotWorker[j - 1]];
+            }
+        }
+        return assignment;
+    }
+
+    private static int[] regret(int[][] candidates, double[][] costs, int[] capacity) {
+        int n = candidates.length;
+        int[] remaining = capacity.clone();
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+
+        // Entries are {pickup, regret}; highest regret first
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(b[1], a[1]));
+        for (int i = 0; i < n; i++) {
+            double r = regretOf(candidates[i], costs[i], remaining);
+            if (!Double.isNaN(r)) {
+                queue.add(new double[]{i, r});
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int i = (int) entry[0];
+            double current = regretOf(candidates[i], costs[i], remaining);
+            if (Double.isNaN(current)) {
+                continue; // every candidate filled up meanwhile
+            }
+            if (current < entry[1] - 1e-9) {
+                queue.add(new double[]{i, current}); // stale priority, re-queue
+                continue;
+            }
+            int best = bestCandidate(candidates[i], costs[i], remaining);
+            assignment[i] = candidates[i][best];
+            remaining[candidates[i][best]]--;
+        }
+        return assignment;
+    }
+
+    /** Second-best minus best cost among workers with capacity left; NaN if none has any. */
+    private static double regretOf(int[] candidates, double[] costs, int[] remaining) {
+        double best = Double.POSITIVE_INFINITY;
+        double second = Double.POSITIVE_INFINITY;
+        for (int c = 0; c < candidates.length; c++) {
+            if (remaining[candidates[c]] <= 0) {
+                continue;
+            }
+            if (costs[c] < best) {
+                second = best;
+                best = costs[c];
+            } else if (costs[c] < second) {
+                second = costs[c];
+            }
+        }
+        if (best == Double.POSITIVE_INFINITY) {
+            return Double.NaN;
+        }
+        return second == Double.POSITIVE_INFINITY ? UNASSIGNED_COST - best : second - best;
+    }
+
+    private static int bestCandidate(int[] candidates, double[] costs, int[] remaining) {
+        int best = -1;
+        for (int c = 0; c < candidates.length; c++) {
+            if (remaining[candidates[c]] > 0 && (best < 0 || costs[c] < costs[best])) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    public static final class Result {
+        private final int[] assignment;
+        private final Method method;
+
+        private Result(int[] assignment, Method method) {
+            this.assignment = assignment;
+            this.method = method;
+        }
+
+        /** Worker index per pickup, or -1 when the pickup could not be placed. */
+        public int[] getAssignment() { return assignment; }
+        public Method getMethod() { return method; }
+    }
+}
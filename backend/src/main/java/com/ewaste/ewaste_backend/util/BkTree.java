@@ -0,0 +1,87 @@
+package com.ewaste.ewaste_backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * BK-tree over 64-bit hashes with Hamming distance, for nearest-neighbour lookups among
+ * perceptual hashes without comparing against every entry.
+ *
+ * Each child edge is labelled with its distance to the parent; by the triangle
+ * inequality a search with radius r only descends into edges within [d - r, d + r] of
+ * the query's distance d to the node. Not thread-safe; callers synchronize.
+ */
+public final class BkTree<T> {
+
+    /** A stored entry within the search radius. */
+    public record Match<T>(long hash, T value, int distance) {
+    }
+
+    private static final class Node<T> {
+        final long hash;
+        final T value;
+        /** children[d] is the subtree at Hamming distance d (0..64) from this node. */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Node<T>[] children = new Node[65];
+
+        Node(long hash, T value) {
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+
+    public void add(long hash, T value) {
+        size++;
+        if (root == null) {
+            root = new Node<>(hash, value);
+            return;
+        }
+        Node<T> node = root;
+        while (true) {
+            int d = Long.bitCount(node.hash ^ hash);
+            Node<T> child = node.children[d];
+            if (child == null) {
+                node.children[d] = new Node<>(hash, value);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Entries within maxDistance of the hash, nearest first.
+     */
+    public List<Match<T>> search(long hash, int maxDistance) {
+        List<Match<T>> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        ArrayDeque<Node<T>> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node<T> node = pending.pop();
+            int d = Long.bitCount(node.hash ^ hash);
+            if (d <= maxDistance) {
+                matches.add(new Match<>(node.hash, node.value, d));
+            }
+            int from = Math.max(0, d - maxDistance);
+            int to = Math.min(64, d + maxDistance);
+            for (int i = from; i <= to; i++) {
+                if (node.children[i] != null) {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::distance));
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,181 @@
+package com.ewaste.ewaste_backend.util;
+
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead plus circuit breaker for one external dependency.
+ *
+ * At most maxConcurrent calls run at once; callers that cannot get a permit within
+ * acquireTimeoutMs get the fallback instead of queueing on a request thread. After
+ * failureThreshold consecutive failures the circuit opens and every call goes straight
+ * to the fallback. Once openMillis have passed a single probe call is let through
+ * (half-open): success closes the circuit, failure opens it again.
+ */
+public class DependencyGuard {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMs;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejectedOpen = new AtomicLong();
+    private final AtomicLong rejectedBulkhead = new AtomicLong();
+
+    public DependencyGuard(String name, int maxConcurrent, long acquireTimeoutMs, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Runs the call if the circuit and bulkhead allow it. The fallback is used when the
+     * call is rejected or fails with a dependency error (5xx, I/O error, timeout); it may
+     * itself throw to signal the dependency is unavailable. Other exceptions, such as 4xx
+     * client errors, are rethrown as is and do not count as failures.
+     */
+    public <T> T call(Supplier<T> call, Supplier<T> fallback) {
+        boolean probe;
+        synchronized (this) {
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.OPEN || (state == State.HALF_OPEN && probeInFlight)) {
+                rejectedOpen.incrementAndGet();
+                return fallback.get();
+            }
+            probe = state == State.HALF_OPEN;
+            if (probe) {
+                probeInFlight = true;
+            }
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedBulkhead.incrementAndGet();
+            if (probe) {
+                synchronized (this) {
+                    probeInFlight = false;
+                }
+            }
+            return fallback.get();
+        }
+
+        calls.incrementAndGet();
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isDependencyFailure(e)) {
+                onFailure(e);
+                return fallback.get();
+            }
+            if (e instanceof HttpStatusCodeException) {
+                // A 4xx answer means the dependency is up; the request itself was bad
+                onSuccess();
+            }
+            throw e;
+        } finally {
+            permits.release();
+            if (probe) {
+                synchronized (this) {
+                    probeInFlight = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Only errors that say the dependency itself is unhealthy count toward opening the
+     * circuit: 5xx answers, I/O errors and timeouts.
+     */
+    private static boolean isDependencyFailure(RuntimeException e) {
+        if (e instanceof HttpServerErrorException || e instanceof ResourceAccessException) {
+            return true;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /** True unless the circuit is open and still cooling down. */
+    public boolean isAvailable() {
+        return getState() != State.OPEN;
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            System.out.println("Circuit for " + name + " closed again");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    private synchronized void onFailure(RuntimeException e) {
+        failures.incrementAndGet();
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            System.err.println("⚠️ Circuit for " + name + " opened after " + consecutiveFailures + " consecutive failures: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", getState().name());
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("inUse", maxConcurrent - permits.availablePermits());
+        stats.put("calls", calls.get());
+        stats.put("failures", failures.get());
+        stats.put("rejectedOpen", rejectedOpen.get());
+        stats.put("rejectedBulkhead", rejectedBulkhead.get());
+        synchronized (this) {
+            stats.put("consecutiveFailures", consecutiveFailures);
+        }
+        return stats;
+    }
+}
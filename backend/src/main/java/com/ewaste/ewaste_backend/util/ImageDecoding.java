@@ -0,0 +1,50 @@
+package com.ewaste.ewaste_backend.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Decodes images at reduced resolution.
+ *
+ * The reader subsamples rows and columns while decoding, so a 12 MP photo is never fully
+ * expanded in memory when only a thumbnail or a hash grid is needed.
+ */
+public final class ImageDecoding {
+
+    private ImageDecoding() {
+    }
+
+    /**
+     * Decodes an image, keeping at least twice maxDimension on its longest side so the
+     * caller can scale it down smoothly.
+     * @return The image, or null if no ImageIO reader supports the format
+     */
+    public static BufferedImage decodeSubsampled(Path path, int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longest / (2 * maxDimension));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.ewaste.ewaste_backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Multi-keyword substring matcher (Aho-Corasick), compiled once into a dense ASCII
+ * transition table so a text is matched in a single pass with one array lookup per
+ * character.
+ *
+ * Each keyword carries a value; keywords added earlier take priority. firstMatch returns
+ * the value of the highest-priority keyword occurring anywhere in the text, which is the
+ * same answer as checking `text.contains(keyword)` for every keyword in insertion order.
+ * Matching is case-insensitive for ASCII letters. Instances are immutable and thread-safe.
+ */
+public final class KeywordMatcher<T> {
+
+    private static final int ALPHABET = 128;
+    private static final int NONE = Integer.MAX_VALUE;
+
+    /** transitions[state * ALPHABET + c] = next state (complete DFA, failure links folded in). */
+    private final int[] transitions;
+    /** Best (lowest) keyword priority ending at each state, including via suffix links; NONE if none. */
+    private final int[] bestPriority;
+    private final List<T> values;
+
+    private KeywordMatcher(int[] transitions, int[] bestPriority, List<T> values) {
+        this.transitions = transitions;
+        this.bestPriority = bestPriority;
+        this.values = values;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Value of the highest-priority keyword contained in the text, or null if none is.
+     */
+    public T firstMatch(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        int state = 0;
+        int best = NONE;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= ALPHABET) {
+                // No keyword contains non-ASCII characters
+                state = 0;
+                continue;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            state = transitions[state * ALPHABET + c];
+            int priority = bestPriority[state];
+            if (priority < best) {
+                best = priority;
+                if (best == 0) {
+                    break;
+                }
+            }
+        }
+        return best == NONE ? null : values.get(best);
+    }
+
+    public int keywordCount() {
+        return values.size();
+    }
+
+    public static final class Builder<T> {
+
+        private final List<String> keywords = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a keyword; earlier keywords win when several occur in the same text.
+         * @throws IllegalArgumentException for blank or non-ASCII keywords
+         */
+        public Builder<T> add(String keyword, T value) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                if (keyword.charAt(i) >= ALPHABET) {
+                    throw new IllegalArgumentException("Keyword '" + keyword + "' contains non-ASCII characters");
+                }
+            }
+            keywords.add(keyword.toLowerCase(Locale.ROOT));
+            values.add(value);
+            return this;
+        }
+
+        public KeywordMatcher<T> build() {
+            // 1. Trie of all keywords; goTo uses -1 for "no edge" until the DFA is completed
+            List<int[]> goTo = new ArrayList<>();
+            List<Integer> output = new ArrayList<>();
+            goTo.add(newRow());
+            output.add(NONE);
+            for (int k = 0; k < keywords.size(); k++) {
+                String keyword = keywords.get(k);
+                int state = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    int c = keyword.charAt(i);
+                    int next = goTo.get(state)[c];
+                    if (next < 0) {
+                        next = goTo.size();
+                        goTo.get(state)[c] = next;
+                        goTo.add(newRow());
+                        output.add(NONE);
+                    }
+                    state = next;
+                }
+                output.set(state, Math.min(output.get(state), k));
+            }
+
+            // 2. Breadth-first: failure links, folded into a complete transition table
+            int states = goTo.size();
+            int[] transitions = new int[states * ALPHABET];
+            int[] bestPriority = new int[states];
+            int[] failure = new int[states];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            bestPriority[0] = output.get(0);
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = goTo.get(0)[c];
+                if (next < 0) {
+                    transitions[c] = 0;
+                } else {
+                    transitions[c] = next;
+                    failure[next] = 0;
+                    queue.add(next);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                bestPriority[state] = Math.min(output.get(state), bestPriority[failure[state]]);
+                for (int c = 0; c < ALPHABET; c++) {
+                    int next = goTo.get(state)[c];
+                    if (next < 0) {
+                        transitions[state * ALPHABET + c] = transitions[failure[state] * ALPHABET + c];
+                    } else {
+                        transitions[state * ALPHABET + c] = next;
+                        failure[next] = transitions[failure[state] * ALPHABET + c];
+                        queue.add(next);
+                    }
+                }
+            }
+            return new KeywordMatcher<>(transitions, bestPriority, Collections.unmodifiableList(new ArrayList<>(values)));
+        }
+
+        private static int[] newRow() {
+            int[] row = new int[ALPHABET];
+            Arrays.fill(row, -1);
+            return row;
+        }
+    }
+}
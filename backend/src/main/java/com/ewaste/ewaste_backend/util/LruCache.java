@@ -0,0 +1,102 @@
+package com.ewaste.ewaste_backend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small bounded in-process cache with least-recently-used eviction and an optional
+ * time-to-live per entry. All access goes through a single lock, which is fine for
+ * the read-mostly lookups it is used for (geocodes, analysis results).
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    /**
+     * @param maxEntries Maximum number of entries kept in memory
+     * @param ttlMillis  Entry lifetime in milliseconds, or 0 to keep entries until evicted
+     */
+    public LruCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key) {
+        synchronized (map) {
+            Entry<V> entry = map.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (ttlMillis > 0 && System.currentTimeMillis() - entry.createdAt > ttlMillis) {
+                map.remove(key);
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        synchronized (map) {
+            map.put(key, new Entry<>(value, System.currentTimeMillis()));
+        }
+    }
+
+    public void remove(K key) {
+        synchronized (map) {
+            map.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public int getMaxEntries() { return maxEntries; }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        private Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ewaste.ewaste_backend.util;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * 64-bit difference hash (dHash) of an image.
+ *
+ * The image is box-averaged down to a 9x8 grid of luma values and each bit records
+ * whether a cell is darker than its right neighbour. Re-encoded, resized or slightly
+ * recropped photos of the same object end up a few bits apart, so similarity is the
+ * Hamming distance between two hashes.
+ */
+public final class PerceptualHash {
+
+    private static final int COLUMNS = 9;
+    private static final int ROWS = 8;
+
+    private PerceptualHash() {
+    }
+
+    public static long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long[] sum = new long[COLUMNS * ROWS];
+        int[] count = new int[COLUMNS * ROWS];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellRow = y * ROWS / height;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int luma = (299 * ((rgb >> 16) & 0xff) + 587 * ((rgb >> 8) & 0xff) + 114 * (rgb & 0xff)) / 1000;
+                int cell = cellRow * COLUMNS + x * COLUMNS / width;
+                sum[cell] += luma;
+                count[cell]++;
+            }
+        }
+
+        long hash = 0L;
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLUMNS - 1; c++) {
+                int left = r * COLUMNS + c;
+                // Cells can be empty for images narrower than 9 px; treat them as black
+                long leftLuma = count[left] == 0 ? 0 : sum[left] / count[left];
+                long rightLuma = count[left + 1] == 0 ? 0 : sum[left + 1] / count[left + 1];
+                hash = (hash << 1) | (leftLuma < rightLuma ? 1L : 0L);
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
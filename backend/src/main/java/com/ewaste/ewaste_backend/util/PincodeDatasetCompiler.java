@@ -0,0 +1,95 @@
+package com.ewaste.ewaste_backend.util;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiles the pincode CSV (pincode,latitude,longitude[,place]) into the compact binary
+ * format read by OfflineGeocoderService. Run by the build (process-classes phase):
+ *
+ *   java PincodeDatasetCompiler src/main/resources/geo/india-pincodes.csv target/classes/geo/pincodes.bin
+ *
+ * Layout (big-endian): int magic "PINC", int version, int count, then `count` records of
+ * (int pincode, float latitude, float longitude) sorted by pincode.
+ */
+public class PincodeDatasetCompiler {
+
+    public static final int MAGIC = 0x50494E43; // "PINC"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 12;
+    public static final int RECORD_BYTES = 12;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: PincodeDatasetCompiler <input.csv> <output.bin>");
+            System.exit(1);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+
+        int count;
+        try (InputStream in = Files.newInputStream(input);
+             OutputStream out = Files.newOutputStream(output)) {
+            count = compile(in, out);
+        }
+        System.out.println("Compiled " + count + " pincodes into " + output);
+    }
+
+    /**
+     * Parses the CSV and writes the sorted binary dataset.
+     * Blank lines and lines starting with '#' are ignored; a later duplicate pincode wins.
+     * @return Number of records written
+     */
+    public static int compile(InputStream csv, OutputStream binary) throws IOException {
+        TreeMap<Integer, float[]> records = new TreeMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length < 3) {
+                    throw new IOException("Malformed pincode record on line " + lineNumber + ": " + line);
+                }
+                try {
+                    int pincode = Integer.parseInt(parts[0].trim());
+                    float latitude = Float.parseFloat(parts[1].trim());
+                    float longitude = Float.parseFloat(parts[2].trim());
+                    records.put(pincode, new float[]{latitude, longitude});
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed pincode record on line " + lineNumber + ": " + line, e);
+                }
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(binary);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(records.size());
+        for (Map.Entry<Integer, float[]> record : records.entrySet()) {
+            out.writeInt(record.getKey());
+            out.writeFloat(record.getValue()[0]);
+            out.writeFloat(record.getValue()[1]);
+        }
+        out.flush();
+        return records.size();
+    }
+}
@@ -0,0 +1,97 @@
+package com.ewaste.ewaste_backend.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A JSON configuration file that is bundled on the classpath and can be overridden by an
+ * external file, which is watched for changes.
+ *
+ * read() parses the external file if it is configured and exists, otherwise the bundled
+ * one. watch() polls the external file's modification time on a daemon thread and runs
+ * the given reload action when it changes; the action is expected to keep its current
+ * state if the new file cannot be parsed.
+ */
+public final class ReloadableJsonFile {
+
+    private final ObjectMapper objectMapper;
+    private final String classpathLocation;
+    private final Path externalFile;
+
+    private volatile long loadedModified = -1;
+    private volatile String source;
+
+    /**
+     * @param classpathLocation Bundled file, e.g. "analysis/keywords.json"
+     * @param externalFile Path of the overriding file; null or blank for none
+     */
+    public ReloadableJsonFile(ObjectMapper objectMapper, String classpathLocation, String externalFile) {
+        this.objectMapper = objectMapper;
+        this.classpathLocation = classpathLocation;
+        this.externalFile = externalFile == null || externalFile.isBlank() ? null : Paths.get(externalFile);
+    }
+
+    public JsonNode read() throws IOException {
+        if (externalFile != null && Files.isRegularFile(externalFile)) {
+            long modified = Files.getLastModifiedTime(externalFile).toMillis();
+            JsonNode root;
+            try (InputStream in = Files.newInputStream(externalFile)) {
+                root = objectMapper.readTree(in);
+            }
+            loadedModified = modified;
+            source = externalFile.toAbsolutePath().toString();
+            return root;
+        }
+        try (InputStream in = new ClassPathResource(classpathLocation).getInputStream()) {
+            JsonNode root = objectMapper.readTree(in);
+            source = "classpath:" + classpathLocation;
+            return root;
+        }
+    }
+
+    /** Where the last successful read() came from. */
+    public String getSource() {
+        return source;
+    }
+
+    public boolean hasChanged() throws IOException {
+        return externalFile != null && Files.isRegularFile(externalFile)
+            && Files.getLastModifiedTime(externalFile).toMillis() != loadedModified;
+    }
+
+    /**
+     * Polls the external file and runs reload when it changes.
+     * @return The watcher to shut down, or null if no external file is configured
+     */
+    public ScheduledExecutorService watch(String threadName, long periodSeconds, Callable<?> reload) {
+        if (externalFile == null) {
+            return null;
+        }
+        ScheduledExecutorService watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> {
+            try {
+                if (hasChanged()) {
+                    reload.call();
+                }
+            } catch (Exception e) {
+                System.err.println("Keeping current configuration, could not reload " + externalFile + ": " + e.getMessage());
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        return watcher;
+    }
+}
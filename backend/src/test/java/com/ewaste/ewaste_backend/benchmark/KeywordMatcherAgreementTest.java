@@ -0,0 +1,24 @@
+package com.ewaste.ewaste_backend.benchmark;
+
+import com.ewaste.ewaste_backend.util.KeywordMatcher;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The compiled keyword tables must classify every label in analysis/vision-labels.txt
+ * exactly like the contains() chain they replaced.
+ */
+class KeywordMatcherAgreementTest {
+
+	@Test
+	void compiledMatcherAgreesWithContainsChain() throws Exception {
+		KeywordMatcher<String> categories = KeywordMatcherBenchmark.loadCategories();
+		for (String label : KeywordMatcherBenchmark.loadLabels()) {
+			String compiled = categories.firstMatch(label);
+			assertEquals(KeywordMatcherBenchmark.legacyMapToCategory(label),
+					compiled != null ? compiled : "Electronic Device (Generic)", "Category of '" + label + "'");
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.ewaste.ewaste_backend.benchmark;
+
+import com.ewaste.ewaste_backend.util.KeywordMatcher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled keyword matcher with the contains() chain it replaced, over the
+ * Vision label corpus in analysis/vision-labels.txt. KeywordMatcherAgreementTest checks
+ * that both return the same categories.
+ *
+ * Run with: mvn test-compile exec:exec@keyword-benchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordMatcherBenchmark {
+
+    private String[] labels;
+    private KeywordMatcher<String> categories;
+
+    @Setup
+    public void setUp() throws Exception {
+        labels = loadLabels();
+        categories = loadCategories();
+    }
+
+    @Benchmark
+    public void containsChain(Blackhole blackhole) {
+        for (String label : labels) {
+            blackhole.consume(legacyMapToCategory(label));
+        }
+    }
+
+    @Benchmark
+    public void compiledMatcher(Blackhole blackhole) {
+        for (String label : labels) {
+            blackhole.consume(categories.firstMatch(label));
+        }
+    }
+
+    /** Label corpus, without comment lines. */
+    static String[] loadLabels() throws IOException {
+        List<String> corpus = new ArrayList<>();
+        try (InputStream in = KeywordMatcherBenchmark.class.getResourceAsStream("/analysis/vision-labels.txt");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    corpus.add(line.trim());
+                }
+            }
+        }
+        return corpus.toArray(new String[0]);
+    }
+
+    /** Category matcher compiled from the bundled keyword tables, as KeywordClassifierService does. */
+    static KeywordMatcher<String> loadCategories() throws IOException {
+        JsonNode tables;
+        try (InputStream in = KeywordMatcherBenchmark.class.getResourceAsStream("/analysis/keywords.json")) {
+            tables = new ObjectMapper().readTree(in);
+        }
+        KeywordMatcher.Builder<String> builder = KeywordMatcher.builder();
+        for (JsonNode entry : tables.path("categories")) {
+            for (JsonNode keyword : entry.path("keywords")) {
+                builder.add(keyword.asText(), entry.path("name").asText());
+            }
+        }
+        return builder.build();
+    }
+
+    /** WasteAnalysisService.mapToCategory as it was before the keyword tables. */
+    static String legacyMapToCategory(String label) {
+        label = label.toLowerCase();
+        if (containsAny(label, "laptop", "notebook", "computer", "screen", "monitor", "pc")) return "Laptop / Computer";
+        if (containsAny(label, "phone", "cellular", "mobile", "ipod", "iphone", "smartphone")) return "Smartphone";
+        if (containsAny(label, "television", "monitor", "screen", "display", "led", "lcd")) return "LED/LCD Monitor";
+        if (containsAny(label, "printer", "photocopier")) return "Printer";
+        if (containsAny(label, "refrigerator", "fridge", "freezer", "ice box", "cooler")) return "Refrigerator";
+        if (containsAny(label, "washer", "washing", "laundry")) return "Washing Machine";
+        if (containsAny(label, "microwave", "oven")) return "Microwave Oven";
+        if (containsAny(label, "radio", "speaker", "amplifier", "receiver", "stereo", "audio", "sound")) return "Audio Equipment (Amplifier/Receiver)";
+        if (containsAny(label, "wire", "cable", "cord", "copper")) return "Cables & Wires";
+        if (containsAny(label, "circuit", "pcb", "board", "motherboard", "electronics")) return "Printed Circuit Boards (PCBs)";
+        return "Electronic Device (Generic)";
+    }
+
+    private static boolean containsAny(String text, String... keywords) {
+        for (String k : keywords) {
+            if (text.contains(k)) return true;
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(KeywordMatcherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ewaste.ewaste_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AssignmentSolverTest {
+
+	private static final int[][] ALL_OF_THREE = {{0, 1, 2}, {0, 1, 2}, {0, 1, 2}};
+
+	@Test
+	void hungarianFindsTheOptimalAssignment() {
+		// Optimum is 1 + 2 + 2 = 5; placing the cheapest pair (p1, w1) first costs 6
+		double[][] costs = {{4, 1, 3}, {2, 0, 5}, {3, 2, 2}};
+		AssignmentSolver.Result result = AssignmentSolver.solve(ALL_OF_THREE, costs, new int[]{1, 1, 1}, Long.MAX_VALUE);
+
+		assertEquals(AssignmentSolver.Method.HUNGARIAN, result.getMethod());
+		assertArrayEquals(new int[]{1, 0, 2}, result.getAssignment());
+	}
+
+	@Test
+	void capacityIsRespected() {
+		int[][] candidates = {{0, 1}, {0, 1}, {0, 1}};
+		double[][] costs = {{1, 10}, {1, 10}, {1, 10}};
+		int[] assignment = AssignmentSolver.solve(candidates, costs, new int[]{2, 5}, Long.MAX_VALUE).getAssignment();
+
+		assertEquals(2, countAssigned(assignment, 0));
+		assertEquals(1, countAssigned(assignment, 1));
+	}
+
+	@Test
+	void pickupsBeyondCapacityStayUnassigned() {
+		int[][] candidates = {{0}, {0}, {0}};
+		double[][] costs = {{1}, {2}, {3}};
+		int[] assignment = AssignmentSolver.solve(candidates, costs, new int[]{1}, Long.MAX_VALUE).getAssignment();
+
+		assertEquals(1, countAssigned(assignment, 0));
+		assertEquals(2, countAssigned(assignment, -1));
+	}
+
+	@Test
+	void regretIsUsedAboveMaxDenseCells() {
+		// p1 loses 9 without w0 and p0 only 1, so p1 is placed first
+		int[][] candidates = {{0, 1}, {0, 1}};
+		double[][] costs = {{1, 2}, {1, 10}};
+		AssignmentSolver.Result result = AssignmentSolver.solve(candidates, costs, new int[]{1, 1}, 0);
+
+		assertEquals(AssignmentSolver.Method.REGRET, result.getMethod());
+		assertArrayEquals(new int[]{1, 0}, result.getAssignment());
+	}
+
+	@Test
+	void regretRespectsCapacity() {
+		int[][] candidates = {{0}, {0}, {0}};
+		double[][] costs = {{1}, {2}, {3}};
+		int[] assignment = AssignmentSolver.solve(candidates, costs, new int[]{2}, 0).getAssignment();
+
+		assertEquals(2, countAssigned(assignment, 0));
+		assertEquals(1, countAssigned(assignment, -1));
+	}
+
+	private static int countAssigned(int[] assignment, int worker) {
+		int count = 0;
+		for (int w : assignment) {
+			if (w == worker) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.ewaste.ewaste_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BkTreeTest {
+
+	@Test
+	void searchReturnsEntriesWithinRadiusNearestFirst() {
+		BkTree<String> tree = new BkTree<>();
+		tree.add(0b0000L, "zero");
+		tree.add(0b0001L, "one");
+		tree.add(0b0011L, "two");
+		tree.add(0b1111L, "four");
+
+		List<BkTree.Match<String>> matches = tree.search(0L, 2);
+
+		assertEquals(3, matches.size());
+		assertEquals("zero", matches.get(0).value());
+		assertEquals("one", matches.get(1).value());
+		assertEquals("two", matches.get(2).value());
+		assertEquals(2, matches.get(2).distance());
+	}
+
+	@Test
+	void searchMatchesLinearScan() {
+		Random random = new Random(42);
+		BkTree<Integer> tree = new BkTree<>();
+		List<Long> hashes = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			// Flip a few bits of a handful of bases so many entries lie close together
+			long hash = (random.nextInt(8) * 0x9E3779B97F4A7C15L) ^ (1L << random.nextInt(64)) ^ (1L << random.nextInt(64));
+			hashes.add(hash);
+			tree.add(hash, i);
+		}
+		assertEquals(2000, tree.size());
+
+		for (int q = 0; q < 50; q++) {
+			long query = hashes.get(random.nextInt(hashes.size())) ^ (1L << random.nextInt(64));
+			int radius = random.nextInt(6);
+			List<BkTree.Match<Integer>> matches = tree.search(query, radius);
+
+			long expected = hashes.stream().filter(h -> Long.bitCount(h ^ query) <= radius).count();
+			assertEquals(expected, matches.size());
+			for (int m = 1; m < matches.size(); m++) {
+				assertTrue(matches.get(m - 1).distance() <= matches.get(m).distance());
+			}
+		}
+	}
+
+	@Test
+	void emptyTreeHasNoMatches() {
+		assertTrue(new BkTree<String>().search(0L, 64).isEmpty());
+	}
+
+}
@@ -676,9 +676,17 @@ function Pickup() {
                       try {
                         const analysisFormData = new FormData();
                         analysisFormData.append('image', formData.image);
-                        const res = await api.post('/api/waste/analyze', analysisFormData, {
+                        let res = await api.post('/api/waste/analyze?async=true', analysisFormData, {
                           headers: { 'Content-Type': 'multipart/form-data' }
                         });
+                        // Analysis runs as a background job; poll until it is done
+                        for (let attempt = 0; res.status === 202 && attempt < 60; attempt++) {
+                          await new Promise(resolve => setTimeout(resolve, 1000));
+                          res = await api.get(`/api/waste/analyze/${res.data.jobId}`);
+                        }
+                        if (res.status === 202) {
+                          throw new Error('Analysis timed out');
+                        }
                         setAnalysisResult(res.data);
                       } catch (err) {
                         console.error("Analysis failed", err);
@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
-import api from '../services/api';
+import api, { API_BASE_URL } from '../services/api';
 
 function Profile() {
   const navigate = useNavigate();
@@ -362,9 +362,9 @@ function Profile() {
                           <div className="text-xs text-gray-500">{pickup.city}, {pickup.pincode}</div>
                         </td>
                         <td className="p-4 text-sm text-gray-800">
-                          {pickup.imageData ? (
+                          {pickup.imageUrl || pickup.imageData ? (
                             <img
-                              src={pickup.imageData.startsWith('/uploads') ? `http://localhost:8082${pickup.imageData}` : getImageUrl(pickup.imageData)}
+                              src={pickup.imageUrl ? `${API_BASE_URL}${pickup.imageUrl}?size=thumb` : getImageUrl(pickup.imageData)}
                               alt="Pickup Item"
                               className="w-16 h-16 object-cover rounded-lg shadow border border-gray-200"
                             />
@@ -232,8 +232,8 @@ const WorkerDashboard = () => {
                                 <div key={item.id} className="flex justify-between items-center text-sm p-2 hover:bg-white hover:shadow-sm rounded-lg transition-all border border-transparent hover:border-gray-100">
                                     <div className="flex items-center gap-3">
                                         <div className="w-8 h-8 rounded bg-gray-200 flex items-center justify-center text-xs overflow-hidden">
-                                            {item.imageData ? (
-                                                <img src={`data:image/jpeg;base64,${item.imageData}`} className="w-full h-full object-cover" alt="thumb" />
+                                            {item.imageUrl ? (
+                                                <img src={`${API_BASE_URL}${item.imageUrl}?size=thumb`} className="w-full h-full object-cover" alt="thumb" />
                                             ) : '📷'}
                                         </div>
                                         <div>